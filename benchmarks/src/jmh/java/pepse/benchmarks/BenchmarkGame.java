@@ -0,0 +1,51 @@
+package pepse.benchmarks;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.ImageReader;
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessImageReader;
+import pepse.headless.HeadlessRunner;
+import pepse.headless.HeadlessWindow;
+import pepse.headless.ScriptedInput;
+
+/**
+ * A game initialized without a display, which the benchmarks add the objects they measure to.
+ * The game itself is never updated - the benchmarks only borrow its collection of game objects, so the
+ * objects they measure live in the same collection and layers they do in a real game.
+ * @author Ohad Klein, Ethan Glick
+ */
+class BenchmarkGame extends PepseGameManager {
+    /** The dimensions of the window the game is initialized with. */
+    static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final int FRAME_RATE = 60;
+
+    private final HeadlessWindow window = new HeadlessWindow(WINDOW_DIMENSIONS, false, FRAME_RATE);
+
+    /**
+     * Initializes a new game, headless.
+     * @return the initialized game.
+     */
+    static BenchmarkGame boot() {
+        System.setProperty("java.awt.headless", "true");
+        BenchmarkGame game = new BenchmarkGame();
+        new HeadlessRunner(game, game.window, new ScriptedInput(), FRAME_RATE).initialize();
+        return game;
+    }
+
+    /**
+     * Getter.
+     * @return the collection of all of the game's objects.
+     */
+    GameObjectCollection objects() {
+        return gameObjects();
+    }
+
+    /**
+     * Creates an image reader that reads no files, like the one the game was initialized with.
+     * @return the image reader.
+     */
+    ImageReader imageReader() {
+        return new HeadlessImageReader(this.window.getController());
+    }
+}
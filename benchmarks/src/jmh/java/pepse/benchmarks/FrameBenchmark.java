@@ -0,0 +1,155 @@
+package pepse.benchmarks;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.ImageReader;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.HUD_Element;
+import pepse.Layers;
+import pepse.PepseGameManager;
+import pepse.headless.ScriptedInput;
+import pepse.util.RandomStreams;
+import pepse.util.TimerWheel;
+import pepse.world.ActiveRegion;
+import pepse.world.Avatar;
+import pepse.world.EntityRegistry;
+import pepse.world.GroundHeightFunction;
+import pepse.world.HitscanWeapon;
+import pepse.world.ProjectilePool;
+import pepse.world.npcs.Bird;
+import pepse.world.npcs.BirdMaker;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the objects updated every step: the avatar, the bird maker steering the flock, and the HUD.
+ * Every operation is one update of the measured object for a single simulation step of the game, on flat
+ * ground, with scripted input instead of a keyboard: the avatar walks right and holds the trigger the whole
+ * time.
+ * @author Ohad Klein, Ethan Glick
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBenchmark {
+    private static final float STEP_TIME = PepseGameManager.SIMULATION_STEP;
+    private static final float GROUND_HEIGHT = 600;
+    private static final int SEED = 420;
+    private static final int MAX_LIVE_PROJECTILES = 64;
+    private static final float ACTIVE_REGION_MARGIN = 100;
+    private static final float SCHEDULER_TICK = 0.01f;
+    private static final float HITSCAN_FIRE_RATE = 12;
+    private static final int HITSCAN_BURST = 3;
+    private static final float HITSCAN_DAMAGE = 30;
+    private static final float HITSCAN_RANGE = 1000;
+    private static final float AVATAR_START_HEIGHT = 100;
+    private static final float BIRDS_WARM_UP_TIME = 120; // enough time for a dozen flocks to appear
+    private static final Vector2 HUD_ELEMENT_SIZE = new Vector2(250, 20);
+
+    private ScriptedInput input;
+    private TimerWheel scheduler;
+    private ProjectilePool projectilePool;
+    private Avatar avatar;
+    private BirdMaker birdMaker;
+    private HUD_Element steadyElement;
+    private HUD_Element changingElement;
+    private int changingValue = 0;
+    private long frame = 0;
+
+    /**
+     * Initializes a headless game, and adds an avatar, a bird maker with flocks of birds, and HUD elements to
+     * it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkGame game = BenchmarkGame.boot();
+        GameObjectCollection gameObjects = game.objects();
+        ImageReader imageReader = game.imageReader();
+        GroundHeightFunction flatGround = x -> GROUND_HEIGHT;
+        GroundHeightFunction noTrunks = x -> Float.POSITIVE_INFINITY;
+        EntityRegistry registry = new EntityRegistry();
+        ActiveRegion activeRegion = new ActiveRegion(ACTIVE_REGION_MARGIN);
+        this.scheduler = new TimerWheel(SCHEDULER_TICK);
+        this.projectilePool = new ProjectilePool(gameObjects, Layers.OBJECTS.value, MAX_LIVE_PROJECTILES,
+                                                 activeRegion, flatGround, registry);
+
+        this.input = new ScriptedInput().press(0, KeyEvent.VK_RIGHT).press(0, KeyEvent.VK_S);
+        this.input.beginFrame(this.frame++);
+        HitscanWeapon hitscanWeapon = new HitscanWeapon(HITSCAN_FIRE_RATE, HITSCAN_BURST, HITSCAN_DAMAGE,
+                HITSCAN_RANGE, flatGround, noTrunks, registry.setOf(Bird.class), gameObjects,
+                Layers.EFFECTS.value);
+        this.avatar = Avatar.create(gameObjects, Layers.OBJECTS.value,
+                                    new Vector2(0, GROUND_HEIGHT - AVATAR_START_HEIGHT),
+                                    this.input.getListener(), imageReader, flatGround, this.projectilePool,
+                                    hitscanWeapon, this.scheduler);
+
+        this.birdMaker = BirdMaker.create(Vector2.ZERO, Vector2.ZERO, null, imageReader, gameObjects,
+                () -> Vector2.ZERO, () -> { }, new RandomStreams(SEED), this.projectilePool, activeRegion,
+                registry, this.scheduler);
+        for (float time = 0; time < BIRDS_WARM_UP_TIME; time += STEP_TIME) {
+            this.scheduler.advance(STEP_TIME);
+        }
+
+        this.steadyElement = HUD_Element.createValueTrackingElement(gameObjects, Layers.UI.value,
+                Vector2.ZERO, HUD_ELEMENT_SIZE, "Health: ", Color.RED, () -> 100);
+        this.changingElement = HUD_Element.createValueTrackingElement(gameObjects, Layers.UI.value,
+                Vector2.ZERO, HUD_ELEMENT_SIZE, "Energy: ", Color.BLUE, () -> this.changingValue);
+    }
+
+    /**
+     * Updates the avatar for a step, while it walks and shoots.
+     * @return the avatar, so it is not optimized away.
+     */
+    @Benchmark
+    public Avatar avatarUpdate() {
+        this.input.beginFrame(this.frame++);
+        this.avatar.update(STEP_TIME);
+        this.projectilePool.recycle();
+        return this.avatar;
+    }
+
+    /**
+     * Updates the bird maker for a step, which steers the flock and looks for birds to remove.
+     * @return the bird maker, so it is not optimized away.
+     */
+    @Benchmark
+    public BirdMaker birdMakerUpdate() {
+        this.birdMaker.update(STEP_TIME);
+        return this.birdMaker;
+    }
+
+    /**
+     * Updates a HUD element whose value stays the same, as most of them do in most steps.
+     * @return the element, so it is not optimized away.
+     */
+    @Benchmark
+    public HUD_Element hudElementUpdateSteady() {
+        this.steadyElement.update(STEP_TIME);
+        return this.steadyElement;
+    }
+
+    /**
+     * Updates a HUD element whose value changes every step, cycling through the values an energy bar shows.
+     * @return the element, so it is not optimized away.
+     */
+    @Benchmark
+    public HUD_Element hudElementUpdateChanging() {
+        this.changingValue = (this.changingValue + 1) % 101;
+        this.changingElement.update(STEP_TIME);
+        return this.changingElement;
+    }
+}
@@ -0,0 +1,155 @@
+package pepse.benchmarks;
+
+import danogl.collisions.GameObjectCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.Layers;
+import pepse.util.ColorSupplier;
+import pepse.util.GradientNoise1D;
+import pepse.util.PerlinNoise;
+import pepse.util.RandomStreams;
+import pepse.world.Block;
+import pepse.world.BlockPools;
+import pepse.world.Terrain;
+import pepse.world.World;
+import pepse.world.trees.Tree;
+import java.awt.*;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of world generation: the noise functions shaping the terrain, the random colors of blocks, and
+ * the creation and destruction of terrain, trees and whole chunks.
+ * Objects created by a benchmark are destroyed within it and their blocks are recycled, as the chunk
+ * pipeline does, so every operation starts from the same state and allocation figures show what a chunk
+ * costs once the block pools are warm.
+ * @author Ohad Klein, Ethan Glick
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldGenerationBenchmark {
+    private static final int SEED = 420;
+    private static final int CHUNK_WIDTH = 32 * Block.SIZE;
+    private static final double NOISE_STEP = 0.37;
+    private static final Color BASE_COLOR = new Color(212, 123, 74);
+
+    private GameObjectCollection gameObjects;
+    private RandomStreams randomStreams;
+    private BlockPools blockPools;
+    private PerlinNoise perlinNoise;
+    private GradientNoise1D gradientNoise;
+    private SplittableRandom random;
+    private Terrain terrain;
+    private double x = 0;
+
+    /**
+     * Initializes a headless game and the generators the benchmarks use.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.gameObjects = BenchmarkGame.boot().objects();
+        this.randomStreams = new RandomStreams(SEED);
+        this.blockPools = new BlockPools();
+        this.perlinNoise = new PerlinNoise(SEED);
+        this.gradientNoise = new GradientNoise1D(SEED);
+        this.random = new SplittableRandom(SEED);
+        // the trees are planted on a terrain that is generated once, and never built
+        this.terrain = newTerrain();
+        this.terrain.setRange(0, CHUNK_WIDTH);
+        this.terrain.generate();
+    }
+
+    /**
+     * Samples the Perlin noise at a new location.
+     * @return the noise, so it is not optimized away.
+     */
+    @Benchmark
+    public float perlinNoise() {
+        this.x += NOISE_STEP;
+        return this.perlinNoise.noise(this.x);
+    }
+
+    /**
+     * Samples the gradient noise the terrain is shaped by, at a new location.
+     * @return the noise, so it is not optimized away.
+     */
+    @Benchmark
+    public float gradientNoise() {
+        this.x += NOISE_STEP;
+        return this.gradientNoise.noise(this.x);
+    }
+
+    /**
+     * Picks a random color close to a base color.
+     * @return the color, so it is not optimized away.
+     */
+    @Benchmark
+    public Color approximateColor() {
+        return ColorSupplier.approximateColor(BASE_COLOR, this.random);
+    }
+
+    /**
+     * Creates the terrain of a chunk, and then destroys it. A terrain is created only once, as in a chunk,
+     * so every operation constructs a new one.
+     * @return the terrain, so it is not optimized away.
+     */
+    @Benchmark
+    public Terrain terrainCreateInRangeAndDestroy() {
+        Terrain terrain = newTerrain();
+        terrain.createInRange(0, CHUNK_WIDTH);
+        terrain.destroy();
+        this.blockPools.recycle();
+        return terrain;
+    }
+
+    /**
+     * Creates the trees of a chunk, and then destroys them. Trees are created only once, as in a chunk, so
+     * every operation constructs a new Tree.
+     * @return the trees, so they are not optimized away.
+     */
+    @Benchmark
+    public Tree treeCreateInRangeAndDestroy() {
+        Tree tree = new Tree(this.gameObjects, this.terrain::groundHeightAt, this.terrain::surfaceHeightAt,
+                             this.randomStreams, this.blockPools);
+        tree.createInRange(0, CHUNK_WIDTH);
+        tree.destroy();
+        this.blockPools.recycle();
+        return tree;
+    }
+
+    /**
+     * Constructs a chunk, generates and builds all of it at once, and then destroys it.
+     * @return the chunk, so it is not optimized away.
+     */
+    @Benchmark
+    public World worldBuildAndDestroy() {
+        World world = new World(SEED, 0, CHUNK_WIDTH, this.gameObjects, BenchmarkGame.WINDOW_DIMENSIONS,
+                                this.randomStreams, this.blockPools, this.terrain::surfaceHeightAt);
+        world.generate();
+        world.build(Integer.MAX_VALUE);
+        world.destroy();
+        this.blockPools.recycle();
+        return world;
+    }
+
+    /*
+     * creates a terrain for a chunk, without generating it.
+     */
+    private Terrain newTerrain() {
+        return new Terrain(this.gameObjects, Layers.TERRAIN_TOP.value, BenchmarkGame.WINDOW_DIMENSIONS, SEED,
+                           this.randomStreams, this.blockPools);
+    }
+}
@@ -7,14 +7,23 @@ import danogl.gui.rendering.Renderable;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
 import java.awt.*;
-import java.util.function.Supplier;
+import java.util.function.IntSupplier;
 
 /**
  * A class for creating HUD elements - visual displays on the screen that present updating information.
+ * An element only changes its text when the value it shows changes, and keeps the texts it has shown, so
+ * showing a value again (health going back up, energy refilling) builds no new string.
  * @author Ethan Glick, Ohad Klein
  */
 public class HUD_Element extends GameObject {
-    private Runnable updateFunction;
+    private static final int CACHED_LABELS = 256;
+
+    private String text;
+    private IntSupplier supplier;
+    private TextRenderable textRenderable;
+    private final String[] labels = new String[CACHED_LABELS];
+    private int shownValue = Integer.MIN_VALUE;
+    private boolean visible = true;
 
     /*
      * private constructor.
@@ -34,16 +43,16 @@ public class HUD_Element extends GameObject {
      * @param supplier a supplier that provides the current value that is to be displayed by the element.
      * @return the HUD element that was created.
      */
-    public static GameObject createValueTrackingElement(GameObjectCollection gameObjects, int layer,
+    public static HUD_Element createValueTrackingElement(GameObjectCollection gameObjects, int layer,
                                                         Vector2 topLeftCorner, Vector2 dimensions,
                                                         String text, Color textColor,
-                                                        Supplier<Number> supplier) {
+                                                        IntSupplier supplier) {
         TextRenderable renderable = new TextRenderable("");
         renderable.setColor(textColor);
         HUD_Element element = new HUD_Element(topLeftCorner, dimensions, renderable);
-        element.updateFunction =
-                ()->((TextRenderable)                   // convert float values to int for nicer visual
-                        element.renderer().getRenderable()).setString(text + supplier.get().intValue());
+        element.text = text;
+        element.supplier = supplier;
+        element.textRenderable = renderable;
 
         element.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         gameObjects.addGameObject(element, layer);
@@ -53,12 +62,39 @@ public class HUD_Element extends GameObject {
 
     /**
      * The update function for the HUD element.
-     * Updates the value displayed by the element.
+     * Updates the value displayed by the element, if it changed.
      * @param deltaTime the time since the previous frame.
      */
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
-        updateFunction.run();
+        if (!visible)
+            return;
+        int value = supplier.getAsInt();
+        if (value == shownValue)
+            return;
+        shownValue = value;
+        textRenderable.setString(labelOf(value));
+    }
+
+    /**
+     * Shows or hides the element. A hidden element does not read its value until it is shown again.
+     * @param visible whether the element should be shown.
+     */
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        renderer().setRenderable(visible ? textRenderable : null);
+    }
+
+    /*
+     * returns the text showing the given value, building it only the first time a (small, non-negative)
+     * value is shown.
+     */
+    private String labelOf(int value) {
+        if (value < 0 || value >= CACHED_LABELS)
+            return text + value;
+        if (labels[value] == null)
+            labels[value] = text + value;
+        return labels[value];
     }
 }
@@ -14,6 +14,7 @@ public enum Layers {
     TERRAIN_TOP(-99),
     TREES(-70),
     LEAVES(-60),
+    EFFECTS(-10),
     OBJECTS(Layer.DEFAULT), // 0
     NIGHT(Layer.FOREGROUND), // 100
     UI(Layer.UI); // 200
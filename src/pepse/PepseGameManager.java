@@ -9,14 +9,23 @@ import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
+import pepse.metrics.Counter;
+import pepse.metrics.FramePhase;
+import pepse.metrics.FrameProfiler;
+import pepse.metrics.MetricsRegistry;
+import pepse.replay.InputRecorder;
+import pepse.util.RandomStreams;
+import pepse.util.TimerWheel;
 import pepse.world.*;
+import pepse.world.daynight.DayCycle;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
+import pepse.world.npcs.Bird;
 import pepse.world.npcs.BirdMaker;
 import java.awt.*;
+import java.nio.file.Paths;
 import java.util.Collections;
-import java.util.LinkedList;
 
 /**
  * The main class of the simulator.
@@ -24,6 +33,10 @@ import java.util.LinkedList;
  * @author Ohad Klein, Ethan Glick
  */
 public class PepseGameManager extends GameManager {
+    /**
+     * The game time simulated by a single step of the game, in seconds.
+     */
+    public static final float SIMULATION_STEP = 1 / 120f;
     private static final String TITLE = "P.E.P.S.E: People Engage Pigeons to Save the Earth!";
     private static final String ENERGY_TEXT = "Energy: ";
     private static final String HEALTH_TEXT = "Health: ";
@@ -38,6 +51,19 @@ public class PepseGameManager extends GameManager {
     private static final float AVATAR_START_HEIGHT = 100;
     private static final float DEATH_ANIMATION_TIME = 2;
     private static final float MIN_HEALTH = 1;
+    private static final int MAX_STEPS_PER_FRAME = 8; // below 15 frames per second, the game slows down
+    private static final int CHUNK_OBJECTS_PER_FRAME = 300;
+    private static final float CHUNK_MILLIS_PER_FRAME = 2;
+    private static final int CHUNK_GENERATION_FRAMES = 3; // for deterministic games only
+    private static final int CHUNK_COLUMNS = 32;
+    private static final int CHUNK_HYSTERESIS = 1;
+    private static final float ACTIVE_REGION_MARGIN = 100;
+    private static final int MAX_LIVE_PROJECTILES = 64;
+    private static final float SCHEDULER_TICK = 0.01f;
+    private static final float HITSCAN_FIRE_RATE = 12;
+    private static final int HITSCAN_BURST = 3;
+    private static final float HITSCAN_DAMAGE = 30;
+    private static final float HITSCAN_RANGE = 1000;
 
     private static final Color HALO_COLOR = new Color(255, 255, 0, 20);
     private static final Color HEALTH_COLOR = Color.RED;
@@ -56,7 +82,9 @@ public class PepseGameManager extends GameManager {
             "SPACE: Jump\n" +
             "SHIFT+SPACE: Fly\n" +
             "S: Shoot (in current direction)\n" +
-            "S+UP_ARROW: Shoot Up\n\n" +
+            "S+UP_ARROW: Shoot Up\n" +
+            "H: Switch between bullets and hitscan\n" +
+            "P: Show/hide performance overlay\n\n" +
             "How many days can YOU survive?";
     private static final String GAME_OVER_TEXT =
             "After just %d days, the pigeons have defeated you!\n" +
@@ -70,15 +98,78 @@ public class PepseGameManager extends GameManager {
             "But the war against the pigeons rages on....\n\n" +
             "Would you like to continue the fight?";
 
+    private final int seed;
+    private final boolean deterministic;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final FrameProfiler profiler = new FrameProfiler(metrics);
+    private final Counter steps = metrics.counter("steps");
+    private final Counter droppedSteps = metrics.counter("steps.dropped");
+    private InputRecorder recorder;
     private Avatar avatar;
-    private LinkedList<World> worlds;
-    private int worldWidth;
-    private int currentWorldIndex;
+    private ChunkPipeline chunkPipeline;
+    private ChunkManager chunkManager;
+    private ActiveRegion activeRegion;
+    private RandomStreams randomStreams;
+    private ProjectilePool projectilePool;
+    private EntityRegistry entityRegistry;
+    private TimerWheel scheduler;
+    private RenderInterpolator renderInterpolator;
+    private DayCycle dayCycle;
+    private PerformanceOverlay performanceOverlay;
+    private double unsimulatedTime;
     private WindowController windowController;
     private Vector2 windowDimensions;
-    private long startTime = 0;
+    private boolean gameOver;
     private int score;
 
+    /**
+     * Constructor. Creates a game with the default world seed.
+     */
+    public PepseGameManager() {
+        this(INITIAL_SEED, false);
+    }
+
+    /**
+     * Constructor.
+     * @param seed          The seed the game's world is generated from.
+     * @param deterministic Whether every run of the game with the same input should play the same - so chunks
+     *                      are loaded by frame count alone, rather than as fast as the machine allows.
+     */
+    public PepseGameManager(int seed, boolean deterministic) {
+        this.seed = seed;
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Getter.
+     * @return the registry of the game's metrics: frame and phase times, chunk work, and the sizes of the
+     * game's systems.
+     */
+    public MetricsRegistry getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Getter.
+     * @return the clock of the days and nights, through which they can be paused or sped up (replaced
+     * whenever the game is reset).
+     */
+    public DayCycle getDayCycle() {
+        return this.dayCycle;
+    }
+
+    /**
+     * Records the input of the next play-through (until the game is over), so it can be replayed.
+     * Should be called before the game is run.
+     * @param recorder the recorder to record the input with.
+     * @throws IllegalStateException if the game is not deterministic, and so could not be replayed.
+     */
+    public void setRecorder(InputRecorder recorder) {
+        if (!deterministic)
+            throw new IllegalStateException("only a deterministic game can be recorded");
+        this.recorder = recorder;
+    }
+
     /**
      * The method will be called once when a GameGUIComponent is created,
      * and again after every invocation of windowController.resetGame().
@@ -91,26 +182,51 @@ public class PepseGameManager extends GameManager {
     @Override
     public void initializeGame(ImageReader imageReader, SoundReader soundReader,
                                UserInputListener inputListener, WindowController windowController) {
-        super.initializeGame(imageReader, soundReader, inputListener, windowController);
         this.windowController = windowController;
         this.windowDimensions = windowController.getWindowDimensions();
-        this.worldWidth = (int) this.windowDimensions.x();
+        if (this.recorder != null)
+            inputListener = this.recorder.start(inputListener, this.seed, this.windowDimensions);
+        super.initializeGame(imageReader, soundReader, inputListener, windowController);
         this.score = 0;
-        this.avatar = Avatar.create(gameObjects(), Layers.OBJECTS.value, new Vector2(this.worldWidth/2f,
-                AVATAR_START_HEIGHT), inputListener, imageReader);
+        this.gameOver = false;
+        this.activeRegion = new ActiveRegion(ACTIVE_REGION_MARGIN);
+        this.randomStreams = new RandomStreams(this.seed);
+        this.entityRegistry = new EntityRegistry();
+        this.scheduler = new TimerWheel(SCHEDULER_TICK);
+        this.renderInterpolator = new RenderInterpolator();
+        this.unsimulatedTime = 0;
+        createWorlds();
+        this.projectilePool = new ProjectilePool(gameObjects(), Layers.OBJECTS.value, MAX_LIVE_PROJECTILES,
+                this.activeRegion, this.chunkManager::surfaceHeightAt, this.entityRegistry);
+        HitscanWeapon hitscanWeapon = new HitscanWeapon(HITSCAN_FIRE_RATE, HITSCAN_BURST, HITSCAN_DAMAGE,
+                HITSCAN_RANGE, this.chunkManager::surfaceHeightAt, this.chunkManager::trunkTopAt,
+                this.entityRegistry.setOf(Bird.class), gameObjects(), Layers.EFFECTS.value);
+        this.avatar = Avatar.create(gameObjects(), Layers.OBJECTS.value, new Vector2(this.windowDimensions.x()/2,
+                AVATAR_START_HEIGHT), inputListener, imageReader, this.chunkManager::surfaceHeightAt,
+                this.projectilePool, hitscanWeapon, this.scheduler);
+        this.renderInterpolator.track(Collections.singletonList(this.avatar));
+        this.renderInterpolator.track(this.entityRegistry.setOf(Bird.class));
+        this.renderInterpolator.track(this.entityRegistry.setOf(Projectile.class));
         setCamera(new Camera(avatar, Vector2.ZERO, windowDimensions, windowDimensions));
-        Sky.create(gameObjects(), windowController.getWindowDimensions(), Layers.SKY.value);
-        Night.create(gameObjects(), Layers.NIGHT.value, windowDimensions, CYCLE_LENGTH_SEC);
-        GameObject sun = Sun.create(gameObjects(), Layers.SUN.value, windowDimensions, CYCLE_LENGTH_SEC);
-        SunHalo.create(gameObjects(), Layers.SUN_HALO.value, sun, HALO_COLOR);
+        this.activeRegion.update(camera());
+        GameObject sky = Sky.create(gameObjects(), windowController.getWindowDimensions(), Layers.SKY.value);
+        GameObject night = Night.create(gameObjects(), Layers.NIGHT.value, windowDimensions);
+        GameObject sun = Sun.create(gameObjects(), Layers.SUN.value, windowDimensions);
+        GameObject halo = SunHalo.create(gameObjects(), Layers.SUN_HALO.value, sun, HALO_COLOR);
+        this.dayCycle = DayCycle.create(gameObjects(), Layers.SKY.value, windowDimensions, CYCLE_LENGTH_SEC,
+                sun, halo, night, sky);
         BirdMaker.create(Vector2.ZERO, Vector2.ZERO, null, imageReader,
-                gameObjects(), this.avatar::getTopLeftCorner, ()->score++, INITIAL_SEED);
+                gameObjects(), this.avatar::getTopLeftCorner, ()->score++, this.randomStreams,
+                this.projectilePool, this.activeRegion, this.entityRegistry, this.scheduler);
 
         addHUD_Elements();
-        createWorlds();
+        this.performanceOverlay = PerformanceOverlay.create(gameObjects(), Layers.UI.value,
+                new Vector2(0, 2 * (HUD_ELEMENT_HEIGHT + HUD_ELEMENT_BUFFER)), inputListener,
+                this.chunkManager::getLoadedCount, this.chunkPipeline::getPendingCount,
+                this.projectilePool::getLiveCount, () -> this.entityRegistry.count(Bird.class));
+        registerGauges();
         setCollisionRules();
         showWelcomeMessage();
-        this.startTime = System.nanoTime(); // to track elapsed time of game
     }
 
     /*
@@ -122,11 +238,11 @@ public class PepseGameManager extends GameManager {
         // Left side of screen:
         // Health
         HUD_Element.createValueTrackingElement(gameObjects(), Layers.UI.value, Vector2.ZERO, elementSize,
-                HEALTH_TEXT, HEALTH_COLOR, this.avatar::getHealth);
+                HEALTH_TEXT, HEALTH_COLOR, () -> (int) this.avatar.getHealth());
         // Energy
         HUD_Element.createValueTrackingElement(gameObjects(), Layers.UI.value,
                 new Vector2(0, HUD_ELEMENT_HEIGHT+HUD_ELEMENT_BUFFER), elementSize, ENERGY_TEXT,
-                ENERGY_COLOR, this.avatar::getEnergy);
+                ENERGY_COLOR, () -> (int) this.avatar.getEnergy());
         // Right side of screen:
         // Time
         HUD_Element.createValueTrackingElement(gameObjects(), Layers.UI.value,
@@ -147,11 +263,11 @@ public class PepseGameManager extends GameManager {
     }
 
     /*
-    * Returns the number of days (cycles) the player has been alive
+    * Returns the number of days (cycles) the player has been alive, by the day cycle's clock - so it counts
+    * the same no matter how fast the frames are run, and stops when the cycle is paused.
     * */
     private int getDayCount() {
-        long oneBillion = 1000000000; // to convert from nano-seconds to seconds
-        return (int) (((System.nanoTime() - startTime)/(oneBillion))/CYCLE_LENGTH_SEC);
+        return this.dayCycle.getDayCount();
     }
 
     /*
@@ -161,14 +277,23 @@ public class PepseGameManager extends GameManager {
         return score;
     }
 
+    /*
+     * registers the gauges of the game's systems in the metrics - again after every reset, as the systems
+     * are created anew.
+     */
+    private void registerGauges() {
+        metrics.gauge("chunks.loaded", chunkManager::getLoadedCount);
+        metrics.gauge("chunks.pending", chunkPipeline::getPendingCount);
+        metrics.gauge("projectiles.live", projectilePool::getLiveCount);
+        metrics.gauge("birds", () -> entityRegistry.count(Bird.class));
+        metrics.gauge("timers.pending", scheduler::getPendingCount);
+    }
+
     /*
      * sets up which layers should interact with one another
      */
     private void setCollisionRules() {
-        gameObjects().layers().shouldLayersCollide(Layers.LEAVES.value,
-                Layers.TERRAIN_TOP.value, true);
-        gameObjects().layers().shouldLayersCollide(Layers.OBJECTS.value,
-                Layers.TERRAIN_TOP.value, true);
+        // landing on the terrain's surface is handled by GroundCollider, not by colliding with its blocks
         gameObjects().layers().shouldLayersCollide(Layers.OBJECTS.value,
                 Layers.TERRAIN.value, true);
         gameObjects().layers().shouldLayersCollide(Layers.OBJECTS.value,
@@ -176,75 +301,78 @@ public class PepseGameManager extends GameManager {
     }
 
     /*
-     * creates the world for the game.
+     * creates the world for the game, around the avatar's starting location.
+     * Must be called before the avatar is created, so it has ground to land on.
      */
     private void createWorlds() {
-        int start = -this.worldWidth, end = -30;
-        this.worlds = new LinkedList<>();
-        World right = new World(INITIAL_SEED - 1, start, end,
-                                this.gameObjects(), this.windowDimensions);
-        start = right.getLastX();
-        end = start + this.worldWidth;
-        World mid = new World(INITIAL_SEED, start, end, this.gameObjects(), this.windowDimensions);
-        start = mid.getLastX();
-        end = start + this.worldWidth;
-        World left = new World(INITIAL_SEED + 1, start, end,
-                                this.gameObjects(), this.windowDimensions);
-        Collections.addAll(this.worlds, right, mid, left);
-        this.currentWorldIndex = 0;
-    }
-
-    /*
-     * Checks if there is a need to add a new world to the game.
-     */
-    private void checkForWorldUpdate() {
-        if (this.avatar.getTopLeftCorner().x() > this.worldWidth * (this.currentWorldIndex + 1)) {
-            this.currentWorldIndex++;
-            // add a world to the right
-            int start = this.worlds.getLast().getLastX() + 1;
-            int end = start + this.worldWidth;
-            int newSeed = this.currentWorldIndex + 1;
-            this.worlds.addLast(
-                    new World(newSeed, start, end, this.gameObjects(), this.windowDimensions));
-            // remove the world from the left
-            this.worlds.getFirst().destroy();
-            this.worlds.removeFirst();
-        } else if (this.avatar.getTopLeftCorner().x() < this.worldWidth * this.currentWorldIndex) {
-            this.currentWorldIndex--;
-            // add a world to the left
-            int end = this.worlds.getFirst().getFirstX() - 1;
-            int start = end - this.worldWidth;
-            int newSeed = this.currentWorldIndex - 1;
-            this.worlds.addFirst(
-                    new World(newSeed, start, end, this.gameObjects(), this.windowDimensions));
-            // remove the world from the right
-            this.worlds.getLast().destroy();
-            this.worlds.removeLast();
-        }
-    }
-
-    /*
-    * Check if avatar has collided with the ground and managed to break through due to low frame rate
-    * */
-    private void checkForAvatarBreakthrough() {
-        Vector2 avatarFeet = avatar.getTopLeftCorner().add(avatar.getDimensions());
-        float delta = worlds.get(1).getTerrain().groundHeightAt(avatar.getCenter().x()) - avatarFeet.y();
-
-        if (delta < 0) {
-            avatar.setTopLeftCorner(new Vector2(avatar.getTopLeftCorner().x(),
-                                             avatar.getTopLeftCorner().y()+delta));
-        }
+        this.chunkPipeline = deterministic ?
+                new ChunkPipeline(CHUNK_OBJECTS_PER_FRAME, 0, CHUNK_GENERATION_FRAMES, metrics) :
+                new ChunkPipeline(CHUNK_OBJECTS_PER_FRAME, CHUNK_MILLIS_PER_FRAME, 0, metrics);
+        int chunkWidth = CHUNK_COLUMNS * Block.SIZE;
+        // enough chunks on each side to cover half a window, plus one being loaded ahead of the avatar
+        int loadRadius = (int) Math.ceil(windowDimensions.x() / 2 / chunkWidth) + 1;
+        this.chunkManager = new ChunkManager(gameObjects(), windowDimensions, chunkPipeline,
+                randomStreams, CHUNK_COLUMNS, loadRadius, CHUNK_HYSTERESIS);
+        // the starting chunks are needed before the first frame, so they are loaded right away
+        this.chunkManager.loadNow(windowDimensions.x() / 2);
     }
 
     /**
      * Overriding the update method to update different game aspects.
+     * The game is simulated in fixed steps, as many as fit in the time that passed, so it plays the same at
+     * any frame rate; the time left over is carried to the next frame, and the moving entities are shown
+     * between their locations before and after the last step. If the frame took so long that too many steps
+     * would be needed to catch up, the game slows down instead.
+     * The chunk pipeline runs once a frame, after the steps, so its budget holds for the whole frame however
+     * many steps it took.
      * @param deltaTime time between updates. For internal use by game engine.
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
-        checkForAvatarBreakthrough();
-        checkForWorldUpdate();
+        if (recorder != null)
+            recorder.beginFrame(deltaTime);
+        profiler.beginFrame(FramePhase.INTERPOLATION);
+        renderInterpolator.restore();
+        unsimulatedTime += deltaTime;
+        int stepsTaken = 0;
+        while (unsimulatedTime >= SIMULATION_STEP && stepsTaken < MAX_STEPS_PER_FRAME) {
+            step();
+            unsimulatedTime -= SIMULATION_STEP;
+            stepsTaken++;
+        }
+        if (unsimulatedTime >= SIMULATION_STEP) {
+            // drop whole steps rather than fall further behind in every frame
+            int dropped = (int) (unsimulatedTime / SIMULATION_STEP);
+            droppedSteps.add(dropped);
+            unsimulatedTime -= dropped * SIMULATION_STEP;
+        }
+        steps.add(stepsTaken);
+
+        profiler.phase(FramePhase.CHUNK_PIPELINE);
+        chunkPipeline.update();
+        profiler.phase(FramePhase.INTERPOLATION);
+        renderInterpolator.interpolate((float) (unsimulatedTime / SIMULATION_STEP));
+        camera().update(0); // follow the avatar where it is shown
+        performanceOverlay.recordFrame();
+        profiler.endFrame(deltaTime);
+    }
+
+    /*
+     * simulates a single fixed step of the game.
+     */
+    private void step() {
+        renderInterpolator.beginStep();
+        profiler.phase(FramePhase.OBJECTS);
+        super.update(SIMULATION_STEP);
+        profiler.phase(FramePhase.SCHEDULER);
+        scheduler.advance(SIMULATION_STEP);
+        profiler.phase(FramePhase.WORLD);
+        activeRegion.update(camera());
+        chunkManager.update(avatar.getCenter().x());
+        chunkManager.updateActivity(activeRegion);
+        profiler.phase(FramePhase.PROJECTILES);
+        projectilePool.recycle();
+        profiler.phase(FramePhase.GAME_OVER);
         checkForGameOver();
     }
 
@@ -252,7 +380,8 @@ public class PepseGameManager extends GameManager {
     * Checks if the player has lost all his health - and if so, begins the game over sequence.
     * */
     private void checkForGameOver() {
-        if (avatar.getHealth() < MIN_HEALTH) {
+        if (!gameOver && avatar.getHealth() < MIN_HEALTH) {
+            gameOver = true; // end the game only once
             new Transition<>( // stop movement
                     avatar, //the game object being changed
                     avatar::setDimensions,  //the method to call
@@ -270,6 +399,10 @@ public class PepseGameManager extends GameManager {
     * */
     private void endGame() {
         gameObjects().removeGameObject(avatar);
+        if (recorder != null) {
+            recorder.close(); // a recording covers a single play-through
+            recorder = null;
+        }
         String endMessage = (score < WIN_SCORE) ? GAME_OVER_TEXT : GAME_OVER_WIN_TEXT;
         if (windowController.openYesNoDialog(String.format(endMessage, getDayCount(), score)))
             windowController.resetGame();
@@ -280,8 +413,28 @@ public class PepseGameManager extends GameManager {
     /**
      * Entry point for program.
      * Initializes and runs a game of PEPSE.
+     * Usage: PepseGameManager [--seed seed] [--record file]
+     * With --record, the game is deterministic and its first play-through is recorded to the given file,
+     * to be replayed by pepse.replay.ReplayRunner.
      */
     public static void main(String[] args) {
-        new PepseGameManager().run();
+        int seed = INITIAL_SEED;
+        String recordingFile = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--seed"))
+                seed = Integer.parseInt(args[i + 1]);
+            else if (args[i].equals("--record"))
+                recordingFile = args[i + 1];
+            else
+                throw new IllegalArgumentException("unknown option " + args[i]);
+        }
+        PepseGameManager game = new PepseGameManager(seed, recordingFile != null);
+        if (recordingFile != null) {
+            InputRecorder recorder = new InputRecorder(Paths.get(recordingFile));
+            game.setRecorder(recorder);
+            // the window may be closed mid-game, which ends the program without ending the play-through
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close));
+        }
+        game.run();
     }
 }
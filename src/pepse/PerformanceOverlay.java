@@ -0,0 +1,202 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.UserInputListener;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * A performance overlay, made of HUD elements, that can be shown and hidden with a key.
+ * It shows the frame rate, the median, 99th percentile and longest frame times of the recent frames, the
+ * number of objects in every layer, the loaded and pending chunks, the projectiles and birds in the game,
+ * the heap in use and the time spent in garbage collection - so when a frame hitches, it shows whether
+ * chunks, leaves or bullets were busy at the time.
+ * Frame times are always recorded (the game reports every rendered frame, however many simulation steps it
+ * ran), but the figures are only recomputed a few times a second, and only while the overlay is shown.
+ * Refreshes are timed by the wall clock rather than by game time, which falls behind when frames are slow.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class PerformanceOverlay extends GameObject {
+    private static final int TOGGLE_KEY = KeyEvent.VK_P;
+    private static final int WINDOW_FRAMES = 240;
+    private static final long REFRESH_NANOS = 250000000; // a quarter of a second
+    private static final float ELEMENT_WIDTH = 250;
+    private static final float ELEMENT_HEIGHT = 20;
+    private static final Color TEXT_COLOR = Color.DARK_GRAY;
+    private static final long NANOS_PER_MICRO = 1000;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final long[] frameNanos = new long[WINDOW_FRAMES];
+    private final long[] sortedFrameNanos = new long[WINDOW_FRAMES];
+    private final ArrayList<HUD_Element> elements = new ArrayList<>();
+    private final int[] layerCounts = new int[Layers.values().length];
+    private GameObjectCollection gameObjects;
+    private UserInputListener inputListener;
+    private long lastFrameTime = 0;
+    private int recordedFrames = 0;
+    private int nextFrame = 0;
+    private long lastRefreshTime = 0;
+    private long lastGcTime = 0;
+    private boolean visible = false;
+    private boolean wasTogglePressed = false;
+    private int framesPerSecond;
+    private int medianFrameMicros;
+    private int percentile99FrameMicros;
+    private int maxFrameMicros;
+    private int heapMegabytes;
+    private int gcMillisPerSecond;
+
+    /*
+     * private constructor.
+     */
+    private PerformanceOverlay(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        super(topLeftCorner, dimensions, renderable);
+    }
+
+    /**
+     * Creates the overlay, hidden, and adds it and its elements to the game.
+     * @param gameObjects     The collection of all participating game objects.
+     * @param layer           The layer to add the overlay to.
+     * @param topLeftCorner   The location of the overlay's top-left corner on the screen.
+     * @param inputListener   Used for reading the key that shows and hides the overlay.
+     * @param loadedChunks    Supplies the number of loaded chunks.
+     * @param pendingChunks   Supplies the number of chunks waiting to be built or destroyed.
+     * @param liveProjectiles Supplies the number of projectiles in the game.
+     * @param birds           Supplies the number of birds in the game.
+     * @return the created overlay.
+     */
+    public static PerformanceOverlay create(GameObjectCollection gameObjects, int layer,
+                                            Vector2 topLeftCorner, UserInputListener inputListener,
+                                            IntSupplier loadedChunks, IntSupplier pendingChunks,
+                                            IntSupplier liveProjectiles, IntSupplier birds) {
+        PerformanceOverlay overlay = new PerformanceOverlay(Vector2.ZERO, Vector2.ZERO, null);
+        overlay.gameObjects = gameObjects;
+        overlay.inputListener = inputListener;
+        overlay.addElement(layer, topLeftCorner, "FPS: ", () -> overlay.framesPerSecond);
+        overlay.addElement(layer, topLeftCorner, "Frame p50 (us): ", () -> overlay.medianFrameMicros);
+        overlay.addElement(layer, topLeftCorner, "Frame p99 (us): ", () -> overlay.percentile99FrameMicros);
+        overlay.addElement(layer, topLeftCorner, "Frame max (us): ", () -> overlay.maxFrameMicros);
+        for (Layers gameLayer : Layers.values()) {
+            overlay.addElement(layer, topLeftCorner, gameLayer.name() + " objects: ",
+                               () -> overlay.layerCounts[gameLayer.ordinal()]);
+        }
+        overlay.addElement(layer, topLeftCorner, "Chunks loaded: ", loadedChunks);
+        overlay.addElement(layer, topLeftCorner, "Chunks pending: ", pendingChunks);
+        overlay.addElement(layer, topLeftCorner, "Projectiles: ", liveProjectiles);
+        overlay.addElement(layer, topLeftCorner, "Birds: ", birds);
+        overlay.addElement(layer, topLeftCorner, "Heap used (MB): ", () -> overlay.heapMegabytes);
+        overlay.addElement(layer, topLeftCorner, "GC time (ms/s): ", () -> overlay.gcMillisPerSecond);
+        overlay.setVisible(false);
+        gameObjects.addGameObject(overlay, layer);
+        return overlay;
+    }
+
+    /**
+     * Override of the update function.
+     * Shows or hides the overlay when its key is pressed, and refreshes the figures it shows a few times a
+     * second (of wall-clock time).
+     * @param deltaTime the time since the previous update.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        boolean isTogglePressed = inputListener.isKeyPressed(TOGGLE_KEY);
+        if (isTogglePressed && !wasTogglePressed)
+            setVisible(!visible);
+        wasTogglePressed = isTogglePressed;
+
+        if (visible && System.nanoTime() - lastRefreshTime >= REFRESH_NANOS)
+            refresh();
+    }
+
+    /*
+     * adds an element showing a value, below the overlay's previous elements.
+     */
+    private void addElement(int layer, Vector2 topLeftCorner, String text, IntSupplier supplier) {
+        Vector2 elementTopLeftCorner = topLeftCorner.add(Vector2.DOWN.mult(elements.size() * ELEMENT_HEIGHT));
+        elements.add(HUD_Element.createValueTrackingElement(gameObjects, layer, elementTopLeftCorner,
+                new Vector2(ELEMENT_WIDTH, ELEMENT_HEIGHT), text, TEXT_COLOR, supplier));
+    }
+
+    /*
+     * shows or hides all of the overlay's elements.
+     */
+    private void setVisible(boolean visible) {
+        this.visible = visible;
+        for (HUD_Element element : elements) {
+            element.setVisible(visible);
+        }
+        if (visible)
+            refresh();
+    }
+
+    /**
+     * Records the wall-clock time since the previous frame in the window of recent frames.
+     * Should be called once for every rendered frame.
+     */
+    public void recordFrame() {
+        long now = System.nanoTime();
+        if (lastFrameTime != 0) {
+            frameNanos[nextFrame] = now - lastFrameTime;
+            nextFrame = (nextFrame + 1) % WINDOW_FRAMES;
+            recordedFrames = Math.min(recordedFrames + 1, WINDOW_FRAMES);
+        }
+        lastFrameTime = now;
+    }
+
+    /*
+     * recomputes the figures the overlay shows.
+     */
+    private void refresh() {
+        if (recordedFrames > 0) {
+            System.arraycopy(frameNanos, 0, sortedFrameNanos, 0, recordedFrames);
+            Arrays.sort(sortedFrameNanos, 0, recordedFrames);
+            long totalNanos = 0;
+            for (int i = 0; i < recordedFrames; i++) {
+                totalNanos += sortedFrameNanos[i];
+            }
+            framesPerSecond = (int) Math.round(recordedFrames * 1e9 / totalNanos);
+            medianFrameMicros = percentileMicros(0.5f);
+            percentile99FrameMicros = percentileMicros(0.99f);
+            maxFrameMicros = (int) (sortedFrameNanos[recordedFrames - 1] / NANOS_PER_MICRO);
+        }
+
+        for (Layers gameLayer : Layers.values()) {
+            int count = 0;
+            for (GameObject ignored : gameObjects.layers().objectsInLayer(gameLayer.value)) {
+                count++;
+            }
+            layerCounts[gameLayer.ordinal()] = count;
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        heapMegabytes = (int) ((runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MEGABYTE);
+        long gcTime = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcTime += Math.max(0, collector.getCollectionTime());
+        }
+        long now = System.nanoTime();
+        if (lastRefreshTime != 0 && now > lastRefreshTime)
+            gcMillisPerSecond = (int) Math.round((gcTime - lastGcTime) * NANOS_PER_SECOND /
+                                                 (now - lastRefreshTime));
+        lastGcTime = gcTime;
+        lastRefreshTime = now;
+    }
+
+    /*
+     * returns the frame time, in microseconds, that the given fraction of the recent frames did not exceed.
+     */
+    private int percentileMicros(float fraction) {
+        int index = Math.min(recordedFrames - 1, (int) Math.ceil(fraction * recordedFrames) - 1);
+        return (int) (sortedFrameNanos[Math.max(0, index)] / NANOS_PER_MICRO);
+    }
+}
@@ -0,0 +1,35 @@
+package pepse.headless;
+
+import danogl.gui.ImageReader;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+import java.awt.image.BufferedImage;
+
+/**
+ * A stand-in for the image reader, for running the game without a display.
+ * Reads no files: every image is the same blank pixel, since nothing is ever drawn.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class HeadlessImageReader extends ImageReader {
+    private final ImageRenderable blankImage =
+            new ImageRenderable(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+
+    /**
+     * Constructor.
+     * @param windowController the (headless) window of the game.
+     */
+    public HeadlessImageReader(WindowController windowController) {
+        super(windowController);
+    }
+
+    /**
+     * Returns a blank image instead of reading one.
+     * @param imagePath               the path of the image (ignored).
+     * @param useTransparencyForWhite whether white should be transparent (ignored).
+     * @return a blank image.
+     */
+    @Override
+    public ImageRenderable readImage(String imagePath, boolean useTransparencyForWhite) {
+        return this.blankImage;
+    }
+}
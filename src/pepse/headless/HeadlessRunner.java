@@ -0,0 +1,108 @@
+package pepse.headless;
+
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import java.awt.event.KeyEvent;
+
+/**
+ * Runs the game without a display, as fast as it can simulate it.
+ * The runner initializes the game with stand-ins for the window, the input, the images and the sounds, and
+ * then updates it at a fixed time step, frame after frame, until the requested number of frames ran or the
+ * game closed its window. It is meant for benchmarks, soak tests and regression tests on machines with no
+ * display.
+ * Usage: HeadlessRunner [frames] [frames per second]
+ * @author Ohad Klein, Ethan Glick
+ */
+public class HeadlessRunner {
+    private static final long DEFAULT_FRAMES = 36000; // ten minutes of game time
+    private static final float DEFAULT_FRAME_RATE = 60;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final long NANOS_PER_SECOND = 1000000000;
+    private static final int SHOOTING_PERIOD_FRAMES = 120;
+    private static final int SHOOTING_FRAMES = 30;
+
+    private final PepseGameManager game;
+    private final HeadlessWindow window;
+    private final ScriptedInput input;
+    private final float frameTime;
+    private long frame = 0;
+
+    /**
+     * Constructor.
+     * @param game      the game to run.
+     * @param window    the stand-in for the game's window.
+     * @param input     the scripted input of the game.
+     * @param frameRate the number of frames in a second of game time.
+     */
+    public HeadlessRunner(PepseGameManager game, HeadlessWindow window, ScriptedInput input,
+                          float frameRate) {
+        this.game = game;
+        this.window = window;
+        this.input = input;
+        this.frameTime = 1 / frameRate;
+    }
+
+    /**
+     * Initializes the game, as the window does before the first frame.
+     */
+    public void initialize() {
+        this.game.initializeGame(new HeadlessImageReader(this.window.getController()),
+                new HeadlessSoundReader(this.window.getController()), this.input.getListener(),
+                this.window.getController());
+    }
+
+    /**
+     * Runs frames of the game, initializing it again whenever it asks to be reset.
+     * @param frames the number of frames to run.
+     * @return the number of frames that ran, fewer than requested if the game closed its window.
+     */
+    public long run(long frames) {
+        long ran = 0;
+        while (ran < frames && !this.window.isClosed()) {
+            if (this.window.takeResetRequest())
+                initialize();
+            this.input.beginFrame(this.frame++);
+            this.game.update(this.frameTime);
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Getter.
+     * @return the number of frames that ran since the runner was created.
+     */
+    public long getFrame() {
+        return this.frame;
+    }
+
+    /**
+     * Runs the game headless, walking right and shooting in bursts, and reports how fast it was simulated,
+     * and the game's metrics.
+     * @param args optionally the number of frames to run, and the number of frames per second of game time.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long frames = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_FRAMES;
+        float frameRate = args.length > 1 ? Float.parseFloat(args[1]) : DEFAULT_FRAME_RATE;
+
+        ScriptedInput input = new ScriptedInput().press(0, KeyEvent.VK_RIGHT);
+        for (long frame = 0; frame + SHOOTING_FRAMES < frames; frame += SHOOTING_PERIOD_FRAMES) {
+            input.press(frame, KeyEvent.VK_S).release(frame + SHOOTING_FRAMES, KeyEvent.VK_S);
+        }
+        HeadlessWindow window = new HeadlessWindow(WINDOW_DIMENSIONS, false, (int) frameRate);
+        PepseGameManager game = new PepseGameManager();
+        HeadlessRunner runner = new HeadlessRunner(game, window, input, frameRate);
+
+        long start = System.nanoTime();
+        runner.initialize();
+        long ran = runner.run(frames);
+        double seconds = (System.nanoTime() - start) / (double) NANOS_PER_SECOND;
+        System.out.printf("Simulated %d frames (%.1f s of game time) in %.2f s: %.0f frames per second%n",
+                ran, ran / frameRate, seconds, ran / seconds);
+        for (String message : window.getMessages()) {
+            System.out.println(message);
+        }
+        System.out.print(game.getMetrics().report());
+    }
+}
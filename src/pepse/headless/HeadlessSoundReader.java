@@ -0,0 +1,30 @@
+package pepse.headless;
+
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.WindowController;
+
+/**
+ * A stand-in for the sound reader, for running the game without a display or a sound device.
+ * Reads no files and plays nothing.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class HeadlessSoundReader extends SoundReader {
+    /**
+     * Constructor.
+     * @param windowController the (headless) window of the game.
+     */
+    public HeadlessSoundReader(WindowController windowController) {
+        super(windowController);
+    }
+
+    /**
+     * Returns no sound instead of reading one.
+     * @param soundFilePath the path of the sound (ignored).
+     * @return null, as there is nothing to play sounds on.
+     */
+    @Override
+    public Sound readSound(String soundFilePath) {
+        return null;
+    }
+}
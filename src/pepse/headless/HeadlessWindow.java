@@ -0,0 +1,131 @@
+package pepse.headless;
+
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A stand-in for the game's window, for running the game without a display.
+ * It hands the game a WindowController that reports fixed window dimensions, records the messages the game
+ * shows instead of displaying them, answers every yes/no question with a preset answer, and remembers
+ * whether the game asked to reset or to close. Any other request is ignored.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class HeadlessWindow implements InvocationHandler {
+    private final Vector2 windowDimensions;
+    private final boolean answer;
+    private final List<String> messages = new ArrayList<>();
+    private final WindowController controller;
+    private int targetFramerate;
+    private boolean resetRequested = false;
+    private boolean closed = false;
+
+    /**
+     * Constructor.
+     * @param windowDimensions the dimensions the window reports.
+     * @param answer           the answer given to every yes/no question.
+     * @param targetFramerate  the frame rate the window reports until the game sets another.
+     */
+    public HeadlessWindow(Vector2 windowDimensions, boolean answer, int targetFramerate) {
+        this.windowDimensions = windowDimensions;
+        this.answer = answer;
+        this.targetFramerate = targetFramerate;
+        this.controller = (WindowController) Proxy.newProxyInstance(
+                WindowController.class.getClassLoader(), new Class<?>[]{WindowController.class}, this);
+    }
+
+    /**
+     * Getter.
+     * @return the window controller to hand the game.
+     */
+    public WindowController getController() {
+        return this.controller;
+    }
+
+    /**
+     * Getter.
+     * @return the messages and questions the game showed, in order.
+     */
+    public List<String> getMessages() {
+        return this.messages;
+    }
+
+    /**
+     * Returns whether the game asked to be reset since the last call, and clears the request.
+     * @return true if the game asked to be reset, false otherwise.
+     */
+    public boolean takeResetRequest() {
+        boolean requested = this.resetRequested;
+        this.resetRequested = false;
+        return requested;
+    }
+
+    /**
+     * Getter.
+     * @return true if the game asked to close the window, false otherwise.
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Answers a call to the window controller.
+     * @param proxy  the window controller.
+     * @param method the called method.
+     * @param args   the arguments of the call.
+     * @return the window's answer, or a default value for requests it ignores.
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getWindowDimensions":
+                return this.windowDimensions;
+            case "showMessageBox":
+                this.messages.add((String) args[0]);
+                return null;
+            case "openYesNoDialog":
+                this.messages.add((String) args[0]);
+                return this.answer;
+            case "resetGame":
+                this.resetRequested = true;
+                return null;
+            case "closeWindow":
+                this.closed = true;
+                return null;
+            case "setTargetFramerate":
+                this.targetFramerate = (Integer) args[0];
+                return null;
+            case "getTargetFramerate":
+                return this.targetFramerate;
+            case "toString":
+                return "HeadlessWindow" + this.windowDimensions;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return defaultValue(method.getReturnType());
+        }
+    }
+
+    /*
+     * returns the value a method of the given return type gives when the window ignores it.
+     */
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        if (type == float.class)
+            return 0f;
+        if (type == double.class)
+            return 0.0;
+        return null;
+    }
+}
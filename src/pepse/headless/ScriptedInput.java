@@ -0,0 +1,137 @@
+package pepse.headless;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A stand-in for the keyboard and mouse, for running the game without a display.
+ * Key presses and releases are scripted ahead of time for given frames, and take effect when the runner
+ * reaches those frames. The game reads them through an ordinary UserInputListener; the mouse never moves
+ * and its buttons are never pressed.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ScriptedInput implements InvocationHandler {
+    private final UserInputListener listener;
+    private final List<ScriptedKey> script = new ArrayList<>();
+    private final Set<Integer> pressedKeys = new HashSet<>();
+    private final Set<Integer> pressedThisFrame = new HashSet<>();
+    private final Set<Integer> releasedThisFrame = new HashSet<>();
+    private int nextEvent = 0;
+
+    /*
+     * a scripted press or release of a key.
+     */
+    private static class ScriptedKey {
+        private final long frame;
+        private final int key;
+        private final boolean pressed;
+
+        ScriptedKey(long frame, int key, boolean pressed) {
+            this.frame = frame;
+            this.key = key;
+            this.pressed = pressed;
+        }
+    }
+
+    /**
+     * Constructor.
+     */
+    public ScriptedInput() {
+        this.listener = (UserInputListener) Proxy.newProxyInstance(
+                UserInputListener.class.getClassLoader(), new Class<?>[]{UserInputListener.class}, this);
+    }
+
+    /**
+     * Getter.
+     * @return the input listener to hand the game.
+     */
+    public UserInputListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Scripts a key to be pressed at a frame (and held until it is released).
+     * Events must be scripted in the order of their frames.
+     * @param frame the frame the key is pressed at.
+     * @param key   the key's code, as in java.awt.event.KeyEvent.
+     * @return this input, for scripting further events.
+     */
+    public ScriptedInput press(long frame, int key) {
+        return addEvent(new ScriptedKey(frame, key, true));
+    }
+
+    /**
+     * Scripts a key to be released at a frame.
+     * Events must be scripted in the order of their frames.
+     * @param frame the frame the key is released at.
+     * @param key   the key's code, as in java.awt.event.KeyEvent.
+     * @return this input, for scripting further events.
+     */
+    public ScriptedInput release(long frame, int key) {
+        return addEvent(new ScriptedKey(frame, key, false));
+    }
+
+    /**
+     * Applies the events scripted for a frame. Should be called by the runner before every frame.
+     * @param frame the frame that is about to run.
+     */
+    public void beginFrame(long frame) {
+        this.pressedThisFrame.clear();
+        this.releasedThisFrame.clear();
+        while (this.nextEvent < this.script.size() && this.script.get(this.nextEvent).frame <= frame) {
+            ScriptedKey event = this.script.get(this.nextEvent++);
+            if (event.pressed && this.pressedKeys.add(event.key))
+                this.pressedThisFrame.add(event.key);
+            else if (!event.pressed && this.pressedKeys.remove(event.key))
+                this.releasedThisFrame.add(event.key);
+        }
+    }
+
+    /**
+     * Answers a call to the input listener.
+     * @param proxy  the input listener.
+     * @param method the called method.
+     * @param args   the arguments of the call.
+     * @return the state of the scripted keys, or a default value for the mouse.
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "isKeyPressed":
+                return this.pressedKeys.contains((Integer) args[0]);
+            case "wasKeyPressedThisFrame":
+                return this.pressedThisFrame.contains((Integer) args[0]);
+            case "wasKeyReleasedThisFrame":
+                return this.releasedThisFrame.contains((Integer) args[0]);
+            case "pressedKeys":
+                return new HashSet<>(this.pressedKeys);
+            case "getMousePos":
+                return Vector2.ZERO;
+            case "toString":
+                return "ScriptedInput" + this.pressedKeys;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return HeadlessWindow.defaultValue(method.getReturnType());
+        }
+    }
+
+    /*
+     * adds an event to the end of the script.
+     */
+    private ScriptedInput addEvent(ScriptedKey event) {
+        if (!this.script.isEmpty() && this.script.get(this.script.size() - 1).frame > event.frame)
+            throw new IllegalArgumentException("events must be scripted in the order of their frames");
+        this.script.add(event);
+        return this;
+    }
+}
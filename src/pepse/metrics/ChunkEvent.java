@@ -0,0 +1,66 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event spanning work on a chunk of the world: generating its data in the background,
+ * or adding or removing some of its game objects during a frame.
+ * @author Ohad Klein, Ethan Glick
+ */
+@Name("pepse.Chunk")
+@Label("Chunk")
+@Category("PEPSE")
+@StackTrace(false)
+@Description("Generating, building or destroying a chunk of the world")
+public class ChunkEvent extends jdk.jfr.Event {
+    private static final EventType TYPE = EventType.getEventType(ChunkEvent.class);
+
+    @Label("Operation")
+    @Description("generate, build or destroy")
+    String operation;
+
+    @Label("First X")
+    int firstX;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Objects")
+    @Description("The number of game objects generated, added or removed")
+    int objects;
+
+    /**
+     * Starts an event, if chunk events are being recorded.
+     * @return the started event, or null if chunk events are not recorded.
+     */
+    public static ChunkEvent beginIfEnabled() {
+        if (!TYPE.isEnabled())
+            return null;
+        ChunkEvent event = new ChunkEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits an event started by beginIfEnabled(). Does nothing if no event was started.
+     * @param event     the event, or null.
+     * @param operation the work done on the chunk: "generate", "build" or "destroy".
+     * @param firstX    the chunk's first x location.
+     * @param columns   the number of the chunk's columns.
+     * @param objects   the number of game objects generated, added or removed.
+     */
+    public static void record(ChunkEvent event, String operation, int firstX, int columns, int objects) {
+        if (event == null)
+            return;
+        event.operation = operation;
+        event.firstX = firstX;
+        event.columns = columns;
+        event.objects = objects;
+        event.commit();
+    }
+}
@@ -0,0 +1,34 @@
+package pepse.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count of events that only goes up, and may be counted from several threads at once.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Counts a single event.
+     */
+    public void increment() {
+        this.count.increment();
+    }
+
+    /**
+     * Counts a number of events.
+     * @param events the number of events to count.
+     */
+    public void add(long events) {
+        this.count.add(events);
+    }
+
+    /**
+     * Getter.
+     * @return the number of events counted so far.
+     */
+    public long get() {
+        return this.count.sum();
+    }
+}
@@ -0,0 +1,27 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event spanning a whole frame of the game.
+ * @author Ohad Klein, Ethan Glick
+ */
+@Name("pepse.Frame")
+@Label("Frame")
+@Category("PEPSE")
+@StackTrace(false)
+@Description("A frame of the game")
+class FrameEvent extends jdk.jfr.Event {
+    @Label("Frame")
+    long frame;
+
+    @Label("Delta Time")
+    @Description("The game time the frame advanced")
+    @Timespan(Timespan.NANOSECONDS)
+    long deltaTime;
+}
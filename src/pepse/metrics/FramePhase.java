@@ -0,0 +1,27 @@
+package pepse.metrics;
+
+/**
+ * The phases a frame of the game is split into, for timing each of them. A frame restores the simulated
+ * locations of entities, runs the phases from OBJECTS to GAME_OVER once for every simulation step it
+ * takes, runs the chunk pipeline once, and then interpolates the locations it renders.
+ * @author Ohad Klein, Ethan Glick
+ */
+public enum FramePhase {
+    INTERPOLATION("interpolation"), // moving entities between their simulated and rendered locations
+    OBJECTS("objects"), // updating every game object and resolving their collisions
+    SCHEDULER("scheduler"),
+    WORLD("world"), // following the avatar with the active region and the loaded chunks
+    PROJECTILES("projectiles"),
+    GAME_OVER("gameOver"),
+    CHUNK_PIPELINE("chunkPipeline");
+
+    /**
+     * the phase's name, as it appears in metrics and events.
+     */
+    public final String label;
+
+    /* private constructor */
+    FramePhase(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,35 @@
+package pepse.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event with the time a frame of the game spent in one of its phases, added up over the
+ * frame's steps. It is committed when the frame ends.
+ * @author Ohad Klein, Ethan Glick
+ */
+@Name("pepse.FramePhase")
+@Label("Frame Phase")
+@Category("PEPSE")
+@StackTrace(false)
+@Description("The time a frame of the game spent in a phase")
+class FramePhaseEvent extends jdk.jfr.Event {
+    @Label("Frame")
+    long frame;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Time")
+    @Description("The time spent in the phase, over all of the frame's steps")
+    @Timespan(Timespan.NANOSECONDS)
+    long time;
+
+    @Label("Runs")
+    @Description("The number of times the phase ran in the frame")
+    int runs;
+}
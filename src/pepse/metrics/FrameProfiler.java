@@ -0,0 +1,121 @@
+package pepse.metrics;
+
+import jdk.jfr.EventType;
+
+/**
+ * Times every frame of the game and each of its phases with System.nanoTime.
+ * The times are recorded in histograms of a MetricsRegistry ("frame.nanos" and "frame.phase.[phase].nanos"),
+ * and, while a JDK Flight Recorder recording is running, published as pepse.Frame and pepse.FramePhase
+ * events, so a recording of a bad session shows which phase spent each slow frame.
+ * Phases run one after the other: starting a phase ends the previous one. A phase may run several times in
+ * a frame (once for every simulation step), so its runs are added up, and its time in the frame is recorded
+ * once, when the frame ends.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class FrameProfiler {
+    private static final EventType FRAME_EVENT_TYPE = EventType.getEventType(FrameEvent.class);
+    private static final EventType PHASE_EVENT_TYPE = EventType.getEventType(FramePhaseEvent.class);
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Histogram frameTimes;
+    private final Histogram[] phaseTimes = new Histogram[FramePhase.values().length];
+    private final Counter frames;
+    private long frame = 0;
+    private long frameStart;
+    private FrameEvent frameEvent;
+    private final long[] phaseNanos = new long[FramePhase.values().length];
+    private final int[] phaseRuns = new int[FramePhase.values().length];
+    private FramePhase phase;
+    private long phaseStart;
+
+    /**
+     * Constructor.
+     * @param registry the registry to record the times in.
+     */
+    public FrameProfiler(MetricsRegistry registry) {
+        this.frameTimes = registry.histogram("frame.nanos");
+        for (FramePhase phase : FramePhase.values()) {
+            this.phaseTimes[phase.ordinal()] = registry.histogram("frame.phase." + phase.label + ".nanos");
+        }
+        this.frames = registry.counter("frames");
+    }
+
+    /**
+     * Starts timing a frame, and its first phase.
+     * @param firstPhase the phase the frame starts with.
+     */
+    public void beginFrame(FramePhase firstPhase) {
+        this.frameStart = System.nanoTime();
+        if (FRAME_EVENT_TYPE.isEnabled()) {
+            this.frameEvent = new FrameEvent();
+            this.frameEvent.begin();
+        }
+        beginPhase(firstPhase, this.frameStart);
+    }
+
+    /**
+     * Ends the current phase of the frame, and starts timing the next one.
+     * @param nextPhase the phase that is about to run.
+     */
+    public void phase(FramePhase nextPhase) {
+        beginPhase(nextPhase, endPhase());
+    }
+
+    /**
+     * Ends the current phase and the frame, and records the time the frame spent in each of its phases.
+     * @param deltaTime the game time the frame advanced, in seconds.
+     */
+    public void endFrame(float deltaTime) {
+        long end = endPhase();
+        this.frameTimes.record(end - this.frameStart);
+        this.frames.increment();
+        boolean publishPhases = PHASE_EVENT_TYPE.isEnabled();
+        for (FramePhase phase : FramePhase.values()) {
+            int i = phase.ordinal();
+            if (this.phaseRuns[i] == 0)
+                continue;
+            this.phaseTimes[i].record(this.phaseNanos[i]);
+            if (publishPhases)
+                publishPhase(phase);
+            this.phaseNanos[i] = 0;
+            this.phaseRuns[i] = 0;
+        }
+        if (this.frameEvent != null) {
+            this.frameEvent.frame = this.frame;
+            this.frameEvent.deltaTime = (long) (deltaTime * NANOS_PER_SECOND);
+            this.frameEvent.commit();
+            this.frameEvent = null;
+        }
+        this.frame++;
+    }
+
+    /*
+     * starts timing a phase at the given time.
+     */
+    private void beginPhase(FramePhase phase, long start) {
+        this.phase = phase;
+        this.phaseStart = start;
+    }
+
+    /*
+     * adds the time of the current phase's run to its time in the frame, and returns the time it ended at.
+     */
+    private long endPhase() {
+        long end = System.nanoTime();
+        this.phaseNanos[this.phase.ordinal()] += end - this.phaseStart;
+        this.phaseRuns[this.phase.ordinal()]++;
+        return end;
+    }
+
+    /*
+     * publishes the time the current frame spent in a phase, as an event at the end of the frame.
+     */
+    private void publishPhase(FramePhase phase) {
+        FramePhaseEvent event = new FramePhaseEvent();
+        event.frame = this.frame;
+        event.phase = phase.label;
+        event.time = this.phaseNanos[phase.ordinal()];
+        event.runs = this.phaseRuns[phase.ordinal()];
+        event.commit();
+    }
+}
@@ -0,0 +1,33 @@
+package pepse.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value that is read from the game whenever it is asked for, such as the number of loaded chunks.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class Gauge {
+    private volatile LongSupplier supplier;
+
+    /*
+     * package-private constructor, gauges are created by the MetricsRegistry.
+     */
+    Gauge(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /*
+     * changes where the gauge reads its value from.
+     */
+    void setSupplier(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Getter.
+     * @return the current value.
+     */
+    public long get() {
+        return this.supplier.getAsLong();
+    }
+}
@@ -0,0 +1,102 @@
+package pepse.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A distribution of non-negative values (usually durations in nanoseconds), kept in logarithmic buckets as
+ * in an HDR histogram: every power of two is split into 8 equal buckets, so any value is known to within
+ * 12.5%, from a nanosecond to centuries, in a fixed array of 488 counts. Recording a value costs a few
+ * arithmetic operations and atomic increments, allocates nothing, and may be done from several threads at
+ * once.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value the value to record.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        this.counts.incrementAndGet(bucketOf(value));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(value);
+        this.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Getter.
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Getter.
+     * @return the largest recorded value, or 0 if none were recorded.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Getter.
+     * @return the mean of the recorded values, or 0 if none were recorded.
+     */
+    public double getMean() {
+        long values = this.count.get();
+        return values == 0 ? 0 : (double) this.sum.get() / values;
+    }
+
+    /**
+     * Returns a value that the given percentage of the recorded values do not exceed, to within the
+     * histogram's precision.
+     * @param percentile the percentage of values, between 0 and 100.
+     * @return the value at the percentile, or 0 if no values were recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long values = this.count.get();
+        if (values == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * values));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= rank)
+                return Math.min(highestValueIn(bucket), getMax());
+        }
+        return getMax();
+    }
+
+    /*
+     * returns the bucket of a value: values below 8 get a bucket each, and every power of two above them is
+     * split into 8 buckets.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /*
+     * returns the highest value that falls in a bucket.
+     */
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,82 @@
+package pepse.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The game's in-process metrics: counters, gauges and histograms, each registered under a name.
+ * Systems look up their metrics once, when they are created, and then update them directly - the registry
+ * is only consulted again to report them. Metrics may be looked up and reported from any thread.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class MetricsRegistry {
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final String NANOS_SUFFIX = ".nanos";
+
+    private final Map<String, Counter> counters = new TreeMap<>();
+    private final Map<String, Gauge> gauges = new TreeMap<>();
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+
+    /**
+     * Returns the counter registered under a name, creating it on first use.
+     * @param name the counter's name.
+     * @return the counter.
+     */
+    public synchronized Counter counter(String name) {
+        return this.counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Registers a gauge under a name, or makes an existing gauge read its value from the given supplier
+     * (for example, after the game was reset).
+     * @param name     the gauge's name.
+     * @param supplier supplies the gauge's current value.
+     * @return the gauge.
+     */
+    public synchronized Gauge gauge(String name, LongSupplier supplier) {
+        Gauge gauge = this.gauges.get(name);
+        if (gauge == null)
+            this.gauges.put(name, gauge = new Gauge(supplier));
+        else
+            gauge.setSupplier(supplier);
+        return gauge;
+    }
+
+    /**
+     * Returns the histogram registered under a name, creating it on first use.
+     * @param name the histogram's name. Histograms of durations should end with ".nanos".
+     * @return the histogram.
+     */
+    public synchronized Histogram histogram(String name) {
+        return this.histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Returns a report of every metric, a line per metric in the order of their names. Histograms of
+     * durations in nanoseconds are reported in microseconds.
+     * @return the report.
+     */
+    public synchronized String report() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : this.counters.entrySet()) {
+            report.append(String.format("%s: %d%n", entry.getKey(), entry.getValue().get()));
+        }
+        for (Map.Entry<String, Gauge> entry : this.gauges.entrySet()) {
+            report.append(String.format("%s: %d%n", entry.getKey(), entry.getValue().get()));
+        }
+        for (Map.Entry<String, Histogram> entry : this.histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            boolean nanos = entry.getKey().endsWith(NANOS_SUFFIX);
+            double scale = nanos ? NANOS_PER_MICRO : 1;
+            String name = entry.getKey();
+            if (nanos)
+                name = name.substring(0, name.length() - NANOS_SUFFIX.length()) + " (us)";
+            report.append(String.format("%s: count %d, mean %.1f, p50 %.1f, p99 %.1f, max %.1f%n", name,
+                    histogram.getCount(), histogram.getMean() / scale,
+                    histogram.getValueAtPercentile(50) / scale, histogram.getValueAtPercentile(99) / scale,
+                    histogram.getMax() / scale));
+        }
+        return report.toString();
+    }
+}
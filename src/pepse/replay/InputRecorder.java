@@ -0,0 +1,160 @@
+package pepse.replay;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import pepse.headless.ScriptedInput;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Records a play session - the world seed, the window's dimensions, and every frame's time and key
+ * changes - into a compact binary file that InputReplay can play back.
+ * The game reads its input through the recorder rather than from the keyboard directly: the keys are read
+ * once at the start of every frame, and the game sees exactly the state that is recorded, so a replay
+ * feeds it the same input at the same frames.
+ * A recording starts with a header (magic number, format version, seed, window width and height), followed
+ * by a record per frame: the frame's time as a float, the numbers of keys pressed and released since the
+ * previous frame as unsigned bytes, and then the codes of those keys as unsigned shorts. A frame with no key
+ * changes takes 6 bytes.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class InputRecorder {
+    /** The first bytes of every recording ("PEPS"). */
+    static final int MAGIC = 0x50455053;
+    /** The version of the recording format. */
+    static final int VERSION = 1;
+    private static final int FLUSH_FRAMES = 60; // so a session that is cut short loses at most a second
+    private static final int MAX_CHANGES = 255;
+
+    private final Path file;
+    private final ScriptedInput input = new ScriptedInput();
+    private UserInputListener liveListener;
+    private DataOutputStream out;
+    private int[] previousKeys = new int[0];
+    private int[] currentKeys = new int[0];
+    private long frame = 0;
+
+    /**
+     * Constructor. Nothing is written until the recording starts.
+     * @param file the file to write the recording to (replacing it, if it exists).
+     */
+    public InputRecorder(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Starts recording, and returns the input listener the game should read its input from.
+     * @param liveListener     the listener of the actual keyboard.
+     * @param seed             the seed the game's world is generated from.
+     * @param windowDimensions the dimensions of the game's window.
+     * @return the listener showing the game the recorded input.
+     * @throws UncheckedIOException if the recording could not be created.
+     */
+    public UserInputListener start(UserInputListener liveListener, int seed, Vector2 windowDimensions) {
+        if (this.out != null)
+            throw new IllegalStateException("the recording has already started");
+        this.liveListener = liveListener;
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.file)));
+            this.out.writeInt(MAGIC);
+            this.out.writeShort(VERSION);
+            this.out.writeInt(seed);
+            this.out.writeFloat(windowDimensions.x());
+            this.out.writeFloat(windowDimensions.y());
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not create the recording " + this.file, e);
+        }
+        return this.input.getListener();
+    }
+
+    /**
+     * Reads the keyboard, records the frame that is about to run, and shows the game its input.
+     * Should be called at the start of every frame, before any object reads the input.
+     * @param deltaTime the time of the frame.
+     * @throws UncheckedIOException if the frame could not be written.
+     */
+    public synchronized void beginFrame(float deltaTime) {
+        if (this.out == null)
+            return;
+        this.previousKeys = this.currentKeys;
+        this.currentKeys = sortedKeys(this.liveListener.pressedKeys());
+        try {
+            this.out.writeFloat(deltaTime);
+            writeChanges(this.currentKeys, this.previousKeys, true);
+            writeChanges(this.previousKeys, this.currentKeys, false);
+            if (this.frame % FLUSH_FRAMES == 0)
+                this.out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not write to the recording " + this.file, e);
+        }
+        this.input.beginFrame(this.frame++);
+    }
+
+    /**
+     * Getter.
+     * @return the number of frames recorded so far.
+     */
+    public long getFrameCount() {
+        return this.frame;
+    }
+
+    /**
+     * Finishes the recording and closes its file. Frames that begin afterwards are not recorded, and closing
+     * a finished recording does nothing.
+     */
+    public synchronized void close() {
+        if (this.out == null)
+            return;
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not finish the recording " + this.file, e);
+        } finally {
+            this.out = null;
+        }
+    }
+
+    /*
+     * writes the number of keys in one sorted array that are not in the other, and then those keys, and
+     * scripts them as pressed or released for the current frame.
+     */
+    private void writeChanges(int[] keys, int[] otherKeys, boolean pressed) throws IOException {
+        int count = 0;
+        for (int key : keys) {
+            if (Arrays.binarySearch(otherKeys, key) < 0)
+                count++;
+        }
+        count = Math.min(count, MAX_CHANGES);
+        this.out.writeByte(count);
+        for (int i = 0; i < keys.length && count > 0; i++) {
+            if (Arrays.binarySearch(otherKeys, keys[i]) >= 0)
+                continue;
+            this.out.writeShort(keys[i]);
+            if (pressed)
+                this.input.press(this.frame, keys[i]);
+            else
+                this.input.release(this.frame, keys[i]);
+            count--;
+        }
+    }
+
+    /*
+     * copies a set of keys into a sorted array. The set is copied in one go first, since the keyboard may
+     * change it while it is read.
+     */
+    private static int[] sortedKeys(Set<Integer> keys) {
+        Object[] copy = keys.toArray();
+        int[] sorted = new int[copy.length];
+        for (int i = 0; i < copy.length; i++) {
+            sorted[i] = (Integer) copy[i];
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
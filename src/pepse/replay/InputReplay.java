@@ -0,0 +1,138 @@
+package pepse.replay;
+
+import danogl.util.Vector2;
+import pepse.headless.ScriptedInput;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A play session recorded by InputRecorder, ready to be played back.
+ * The recording's key changes are scripted on a ScriptedInput, so the game reads them through an ordinary
+ * UserInputListener, at the same frames they were recorded at; and the frames are replayed with their
+ * recorded times, in a world generated from the recorded seed.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class InputReplay {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int seed;
+    private final Vector2 windowDimensions;
+    private final float[] frameTimes;
+    private final ScriptedInput input;
+
+    /*
+     * private constructor.
+     */
+    private InputReplay(int seed, Vector2 windowDimensions, float[] frameTimes, ScriptedInput input) {
+        this.seed = seed;
+        this.windowDimensions = windowDimensions;
+        this.frameTimes = frameTimes;
+        this.input = input;
+    }
+
+    /**
+     * Reads a recording. A frame cut short at the end of the file (by a session that was not closed) is
+     * ignored.
+     * @param file the recording's file.
+     * @return the recorded session.
+     * @throws IOException if the file could not be read, or is not a recording.
+     */
+    public static InputReplay read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != InputRecorder.MAGIC)
+                throw new IOException(file + " is not a recording");
+            int version = in.readUnsignedShort();
+            if (version != InputRecorder.VERSION)
+                throw new IOException(file + " is a recording of unsupported version " + version);
+            int seed = in.readInt();
+            Vector2 windowDimensions = new Vector2(in.readFloat(), in.readFloat());
+
+            ScriptedInput input = new ScriptedInput();
+            float[] frameTimes = new float[INITIAL_CAPACITY];
+            int frames = 0;
+            int[] pressed = new int[0];
+            int[] released = new int[0];
+            while (true) {
+                float deltaTime;
+                try {
+                    deltaTime = in.readFloat();
+                    pressed = readKeys(in, pressed);
+                    released = readKeys(in, released);
+                } catch (EOFException e) {
+                    break;
+                }
+                for (int i = 0; pressed[i] >= 0; i++) {
+                    input.press(frames, pressed[i]);
+                }
+                for (int i = 0; released[i] >= 0; i++) {
+                    input.release(frames, released[i]);
+                }
+                if (frames == frameTimes.length)
+                    frameTimes = Arrays.copyOf(frameTimes, 2 * frames);
+                frameTimes[frames++] = deltaTime;
+            }
+            return new InputReplay(seed, windowDimensions, Arrays.copyOf(frameTimes, frames), input);
+        }
+    }
+
+    /**
+     * Getter.
+     * @return the seed the recorded game's world was generated from.
+     */
+    public int getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter.
+     * @return the dimensions of the recorded game's window.
+     */
+    public Vector2 getWindowDimensions() {
+        return this.windowDimensions;
+    }
+
+    /**
+     * Getter.
+     * @return the number of recorded frames.
+     */
+    public int getFrameCount() {
+        return this.frameTimes.length;
+    }
+
+    /**
+     * Returns the time of a recorded frame.
+     * @param frame the frame's number, from 0.
+     * @return the time between the frame and the one before it, as it was passed to the game.
+     */
+    public float getFrameTime(int frame) {
+        return this.frameTimes[frame];
+    }
+
+    /**
+     * Getter.
+     * @return the input that plays back the recorded keys, frame by frame.
+     */
+    public ScriptedInput getInput() {
+        return this.input;
+    }
+
+    /*
+     * reads a frame's count of keys and then the keys, into the given array if it is large enough, ending
+     * them with -1.
+     */
+    private static int[] readKeys(DataInputStream in, int[] keys) throws IOException {
+        int count = in.readUnsignedByte();
+        if (keys.length <= count)
+            keys = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            keys[i] = in.readUnsignedShort();
+        }
+        keys[count] = -1;
+        return keys;
+    }
+}
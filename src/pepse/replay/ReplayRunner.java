@@ -0,0 +1,107 @@
+package pepse.replay;
+
+import pepse.PepseGameManager;
+import pepse.headless.HeadlessImageReader;
+import pepse.headless.HeadlessSoundReader;
+import pepse.headless.HeadlessWindow;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Replays a recorded play session without a display, and reports how long every frame took to simulate.
+ * The session runs frame by frame exactly as it was recorded - same world, same input, same frame times,
+ * and chunks loaded deterministically - so replaying it before and after a change, and comparing the two
+ * frame-time profiles, shows what the change did to the frames the session actually played.
+ * Usage: ReplayRunner recording [frame times output]
+ * The optional output gets every frame's simulation time in microseconds, a line per frame. The game's
+ * metrics, including the time of each phase of the frames, are printed at the end.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ReplayRunner {
+    private static final int TARGET_FRAMERATE = 60;
+    private static final long NANOS_PER_MICRO = 1000;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final InputReplay replay;
+    private final PepseGameManager game;
+    private final HeadlessWindow window;
+
+    /**
+     * Constructor.
+     * @param replay the recorded session to replay.
+     */
+    public ReplayRunner(InputReplay replay) {
+        this.replay = replay;
+        this.game = new PepseGameManager(replay.getSeed(), true);
+        this.window = new HeadlessWindow(replay.getWindowDimensions(), false, TARGET_FRAMERATE);
+    }
+
+    /**
+     * Replays the session, until its recording ends or the game ends.
+     * @return the time each replayed frame took to simulate, in nanoseconds.
+     */
+    public long[] run() {
+        this.game.initializeGame(new HeadlessImageReader(this.window.getController()),
+                new HeadlessSoundReader(this.window.getController()), this.replay.getInput().getListener(),
+                this.window.getController());
+        long[] frameNanos = new long[this.replay.getFrameCount()];
+        int frame = 0;
+        // a recording covers a single play-through, so a request to play again ends it too
+        while (frame < frameNanos.length && !this.window.isClosed() && !this.window.takeResetRequest()) {
+            this.replay.getInput().beginFrame(frame);
+            long start = System.nanoTime();
+            this.game.update(this.replay.getFrameTime(frame));
+            frameNanos[frame++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(frameNanos, frame);
+    }
+
+    /**
+     * Replays a recording and prints a summary of its frame times.
+     * @param args the recording's file, and optionally a file to write every frame's time to.
+     * @throws IOException if the recording could not be read, or the frame times could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRunner recording [frame times output]");
+            return;
+        }
+        System.setProperty("java.awt.headless", "true");
+        InputReplay replay = InputReplay.read(Paths.get(args[0]));
+        ReplayRunner runner = new ReplayRunner(replay);
+        long[] frameNanos = runner.run();
+
+        if (args.length > 1) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(args[1])))) {
+                for (long nanos : frameNanos) {
+                    out.println(nanos / NANOS_PER_MICRO);
+                }
+            }
+        }
+        if (frameNanos.length == 0)
+            return;
+        long[] sorted = frameNanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long nanos : sorted) {
+            total += nanos;
+        }
+        System.out.printf("Replayed %d of %d frames (seed %d) in %.1f ms%n", frameNanos.length,
+                replay.getFrameCount(), replay.getSeed(), total / NANOS_PER_MILLI);
+        System.out.printf("Frame time (ms): mean %.3f, p50 %.3f, p99 %.3f, max %.3f%n",
+                total / NANOS_PER_MILLI / sorted.length, percentile(sorted, 0.5) / NANOS_PER_MILLI,
+                percentile(sorted, 0.99) / NANOS_PER_MILLI, sorted[sorted.length - 1] / NANOS_PER_MILLI);
+        System.out.print(runner.game.getMetrics().report());
+    }
+
+    /*
+     * returns the value that the given fraction of the sorted values do not exceed.
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+}
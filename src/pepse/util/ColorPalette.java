@@ -0,0 +1,67 @@
+package pepse.util;
+
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import java.awt.*;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded set of precomputed colors similar to a base color, each with a shared renderable.
+ * Objects that only need to look like "roughly the base color" take a reference to one of the variants,
+ * instead of allocating a color and a renderable of their own.
+ * A palette's variants are drawn from a generator seeded by its base color, so they are the same in
+ * every run.
+ * @author Ohad Klein, Ethan Glick
+ */
+public final class ColorPalette {
+    /**
+     * The number of variants in every palette.
+     */
+    public static final int VARIANTS = 64;
+
+    private static final ConcurrentHashMap<Color, ColorPalette> palettes = new ConcurrentHashMap<>();
+
+    private final Color[] colors;
+    private final Renderable[] renderables;
+
+    /*
+     * private constructor.
+     */
+    private ColorPalette(Color baseColor) {
+        this.colors = new Color[VARIANTS];
+        this.renderables = new Renderable[VARIANTS];
+        SplittableRandom random = new SplittableRandom(baseColor.getRGB());
+        for (int i = 0; i < VARIANTS; i++) {
+            colors[i] = ColorSupplier.approximateColor(baseColor, random);
+            renderables[i] = new RectangleRenderable(colors[i]);
+        }
+    }
+
+    /**
+     * Returns the palette of a base color, computing it on first use.
+     * @param baseColor the color that the palette's variants approximate.
+     * @return the palette of the given color.
+     */
+    public static ColorPalette of(Color baseColor) {
+        return palettes.computeIfAbsent(baseColor, ColorPalette::new);
+    }
+
+    /**
+     * Returns a random color of the palette.
+     * @param random the generator to pick the color with.
+     * @return a color similar to the palette's base color.
+     */
+    public Color randomColor(SplittableRandom random) {
+        return colors[random.nextInt(VARIANTS)];
+    }
+
+    /**
+     * Returns the shared renderable of a random color of the palette.
+     * @param random the generator to pick the color with.
+     * @return a renderable of a color similar to the palette's base color.
+     */
+    public Renderable randomRenderable(SplittableRandom random) {
+        return renderables[random.nextInt(VARIANTS)];
+    }
+}
@@ -0,0 +1,148 @@
+package pepse.util;
+
+/**
+ * Gradient noise specialized for a single dimension, for random landscape.
+ * Produces exactly the same values as PerlinNoise.noise for the same seed, but only evaluates the
+ * lattice gradients a one-dimensional sample depends on, and can fill a whole range of samples at once.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class GradientNoise1D {
+    private static final float DEFAULT_SIZE = 500;
+    private static final float AMPLITUDE = 250;
+    private static final int LATTICE_SIZE = 256;
+
+    private final double seed;
+    private final double y;
+    private final int[] hashesAtY;
+    private final int[] hashesAtNextY;
+    private final double[] slopes;
+
+    /**
+     * Constructor.
+     * @param seed - A seed for a random number generator.
+     */
+    public GradientNoise1D(double seed) {
+        this.seed = seed;
+        // PerlinNoise samples the plane z = 0 at y = seed, so only one row of lattice cells is ever used.
+        this.y = seed - Math.floor(seed);
+        this.hashesAtY = new int[LATTICE_SIZE + 1];
+        this.hashesAtNextY = new int[LATTICE_SIZE + 1];
+        this.slopes = new double[LATTICE_SIZE + 1];
+        init((int) Math.floor(seed) & 255);
+    }
+
+    /*
+     * Precomputes the gradient hashes of the lattice points on the sampled row, and the slope each
+     * gradient reduces to when the sampled row lies exactly on the lattice.
+     */
+    private void init(int row) {
+        int[] p = new int[2 * LATTICE_SIZE];
+        for (int i = 0; i < LATTICE_SIZE; i++) {
+            p[LATTICE_SIZE + i] = p[i] = PerlinNoise.PERMUTATION[i];
+        }
+
+        for (int x = 0; x <= LATTICE_SIZE; x++) {
+            hashesAtY[x] = p[p[p[x] + row]];
+            hashesAtNextY[x] = p[p[p[x] + row + 1]];
+            slopes[x] = slope(hashesAtY[x]);
+        }
+    }
+
+    /**
+     * Generates noise from given x.
+     * @param x to generate noise from
+     * @return noise made by using x
+     */
+    public float noise(double x) {
+        float value = 0f;
+        float size = DEFAULT_SIZE;
+
+        while (size >= 1) {
+            value += smoothNoise(x / size) * size;
+            size /= 2.0;
+        }
+
+        return value / DEFAULT_SIZE * AMPLITUDE;
+    }
+
+    /**
+     * Generates noise for evenly spaced samples in a single pass over all octaves,
+     * so that out[i] == noise(startX + i * step).
+     * @param startX the x of the first sample.
+     * @param step the distance between two consecutive samples.
+     * @param out the array to fill with the generated noise.
+     */
+    public void fill(double startX, double step, float[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = 0f;
+        }
+
+        float size = DEFAULT_SIZE;
+        while (size >= 1) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] += smoothNoise((startX + i * step) / size) * size;
+            }
+            size /= 2.0;
+        }
+
+        for (int i = 0; i < out.length; i++) {
+            out[i] = out[i] / DEFAULT_SIZE * AMPLITUDE;
+        }
+    }
+
+    /*
+     * smooths the noise, used in the noise functions.
+     */
+    private double smoothNoise(double x) {
+        // Offset the coordinate by the seed value, as PerlinNoise does
+        x += this.seed;
+        x += this.seed;
+
+        int X = (int) Math.floor(x) & 255;
+        x -= Math.floor(x);
+        double u = fade(x);
+
+        if (y == 0)
+            return lerp(u, slopes[X] * x, slopes[X + 1] * (x - 1));
+
+        double v = fade(y);
+        return lerp(v, lerp(u, grad(hashesAtY[X], x, y), grad(hashesAtY[X + 1], x - 1, y)),
+                       lerp(u, grad(hashesAtNextY[X], x, y - 1), grad(hashesAtNextY[X + 1], x - 1, y - 1)));
+    }
+
+    /*
+     * used in smoothNoise.
+     */
+    private static double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+    /*
+     * used in smoothNoise.
+     */
+    private static double lerp(double t, double a, double b) {
+        return a + t * (b - a);
+    }
+
+    /*
+     * PerlinNoise's gradient function on the plane z = 0.
+     */
+    private static double grad(int hash, double x, double y) {
+        int h = hash & 15;
+        double u = h < 8 ? x : y,
+                v = h < 4 ? y : h == 12 || h == 14 ? x : 0;
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+
+    /*
+     * the slope grad() reduces to on the line y = z = 0.
+     */
+    private static double slope(int hash) {
+        int h = hash & 15;
+        if (h < 8)
+            return (h & 1) == 0 ? 1 : -1;
+        if (h == 12 || h == 14)
+            return (h & 2) == 0 ? 1 : -1;
+        return 0;
+    }
+}
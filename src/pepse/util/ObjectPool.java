@@ -0,0 +1,57 @@
+package pepse.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * A pool of reusable objects.
+ * Released objects only become available again after the next call to recycle(), so an object
+ * that is removed from the game is never re-added to it within the same frame.
+ * @param <T> the type of the pooled objects.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ObjectPool<T> {
+    private final ArrayDeque<T> available;
+    private final ArrayList<T> released;
+
+    /**
+     * Constructor.
+     */
+    public ObjectPool() {
+        this.available = new ArrayDeque<>();
+        this.released = new ArrayList<>();
+    }
+
+    /**
+     * Takes an object out of the pool.
+     * @return a pooled object, or null if the pool is empty (in which case the caller creates a new one).
+     */
+    public T acquire() {
+        return this.available.pollLast();
+    }
+
+    /**
+     * Returns an object to the pool, once it is no longer used.
+     * @param object the object to return.
+     */
+    public void release(T object) {
+        this.released.add(object);
+    }
+
+    /**
+     * Makes the objects released since the last call available for reuse.
+     * Should be called once every frame.
+     */
+    public void recycle() {
+        this.available.addAll(this.released);
+        this.released.clear();
+    }
+
+    /**
+     * Returns the number of objects held by the pool.
+     * @return the number of available and released objects.
+     */
+    public int size() {
+        return this.available.size() + this.released.size();
+    }
+}
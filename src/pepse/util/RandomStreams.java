@@ -0,0 +1,75 @@
+package pepse.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * The single source of randomness of a game, derived from one world seed.
+ * Instead of sharing a generator, every consumer asks for its own stream, identified by a domain (what the
+ * numbers are for) and a key within it (a chunk, a block column, an entity...). A stream's numbers depend
+ * only on the world seed, its domain and its key - not on which other streams were used, in what order or
+ * on which thread - so the same world seed always produces the same game, and streams can be used in
+ * parallel without any locking.
+ * @author Ohad Klein, Ethan Glick
+ */
+public final class RandomStreams {
+    /**
+     * What a stream's numbers are used for. Streams of different domains are independent, even for the
+     * same key.
+     */
+    public enum Domain {
+        /** the colors of a terrain column, keyed by the column's index. */
+        TERRAIN,
+        /** the tree growing in a column (if any), keyed by the column's index. */
+        TREES,
+        /** the life-cycles of the leaves of a chunk, keyed by the index of the chunk's first column. */
+        LEAVES,
+        /** the times and places birds appear at. */
+        FLOCKS,
+        /** the behavior of a single bird, keyed by the bird's serial number. */
+        BIRDS
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final int worldSeed;
+    private final long root;
+
+    /**
+     * Constructor.
+     * @param worldSeed the seed all of the game's randomness is derived from.
+     */
+    public RandomStreams(int worldSeed) {
+        this.worldSeed = worldSeed;
+        this.root = mix(worldSeed + GOLDEN_GAMMA);
+    }
+
+    /**
+     * Getter.
+     * @return the seed all of the streams are derived from.
+     */
+    public int getWorldSeed() {
+        return this.worldSeed;
+    }
+
+    /**
+     * Returns a new stream for the given domain and key. Asking for the same domain and key again returns
+     * a stream with the same numbers.
+     * @param domain what the numbers are used for.
+     * @param key    identifies the stream within its domain.
+     * @return a generator of the stream's numbers, to be used by a single thread.
+     */
+    public SplittableRandom stream(Domain domain, long key) {
+        long seed = mix((this.root ^ (domain.ordinal() + 1)) + GOLDEN_GAMMA);
+        return new SplittableRandom(mix((seed ^ key) + GOLDEN_GAMMA));
+    }
+
+    /*
+     * scrambles the bits of a number (the finalizer of the SplitMix64 generator), so that close
+     * keys produce unrelated seeds.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,47 @@
+package pepse.util;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import java.awt.*;
+
+/**
+ * Renders a vertical stack of equally-sized colored cells as a single renderable,
+ * so a tall object can keep the mottled look of the separate blocks it replaces.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class StripedRenderable implements Renderable {
+    private final Color[] colors;
+
+    /**
+     * Constructor.
+     * @param colors the colors of the cells, from top to bottom.
+     */
+    public StripedRenderable(Color[] colors) {
+        this.colors = colors;
+    }
+
+    /**
+     * Renders the cells, each taking an equal share of the given dimensions' height.
+     * Rotation and flipping are ignored, as striped objects are never rotated.
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                       double degreesCounterClockwise, boolean isFlippedHorizontally,
+                       boolean isFlippedVertically, double opaqueness) {
+        Composite originalComposite = g.getComposite();
+        if (opaqueness < 1)
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+
+        int x = Math.round(topLeftCorner.x());
+        int width = Math.round(dimensions.x());
+        float cellHeight = dimensions.y() / colors.length;
+        for (int i = 0; i < colors.length; i++) {
+            int top = Math.round(topLeftCorner.y() + i * cellHeight);
+            int bottom = Math.round(topLeftCorner.y() + (i + 1) * cellHeight);
+            g.setColor(colors[i]);
+            g.fillRect(x, top, width, bottom - top);
+        }
+
+        g.setComposite(originalComposite);
+    }
+}
@@ -0,0 +1,198 @@
+package pepse.util;
+
+/**
+ * Runs delayed and recurring actions on game time, using a hierarchical timing wheel.
+ * Game time is split into ticks, and each level of the wheel is a ring of slots holding lists of timers:
+ * the first level has a slot per tick, and every following level a slot per full turn of the level below.
+ * A timer is put in the slot of the lowest level whose turn contains its deadline, and moves down a level
+ * whenever the wheel reaches its slot, until it fires. Scheduling and cancelling a timer take constant time
+ * no matter how many timers are pending, and timers are reused, so recurring actions allocate nothing.
+ * The wheel only advances when the game calls advance(), so timers follow the game's clock.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class TimerWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // a deadline must not reach around the top level, back into the slot being processed
+    private static final long MAX_DELAY_TICKS = (SLOTS - 1L) << (BITS * (LEVELS - 1));
+
+    private final float tickLength;
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private long currentTick = 0;
+    private double time = 0;
+    private int pendingCount = 0;
+
+    /**
+     * A reusable action the wheel runs at a given time, and then optionally again at a fixed period.
+     * A timer is pending in at most one place of the wheel, so scheduling a pending timer moves it.
+     */
+    public static class Timer {
+        private final Runnable action;
+        private Timer previous;
+        private Timer next;
+        private int level = -1;
+        private long deadline;
+        private long periodTicks;
+
+        /**
+         * Constructor.
+         * @param action the action to run when the timer fires.
+         */
+        public Timer(Runnable action) {
+            this.action = action;
+        }
+
+        /**
+         * Returns whether the timer is scheduled to fire.
+         * @return true if the timer is pending, false otherwise.
+         */
+        public boolean isPending() {
+            return this.level >= 0;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param tickLength the length of a tick in seconds - the precision timers fire at.
+     */
+    public TimerWheel(float tickLength) {
+        this.tickLength = tickLength;
+    }
+
+    /**
+     * Getter.
+     * @return the game time the wheel has advanced through, in seconds.
+     */
+    public float getTime() {
+        return (float) this.time;
+    }
+
+    /**
+     * Getter.
+     * @return the number of timers scheduled to fire.
+     */
+    public int getPendingCount() {
+        return this.pendingCount;
+    }
+
+    /**
+     * Schedules a timer to fire once, after the given delay. If the timer is already pending, it is
+     * rescheduled instead.
+     * @param timer the timer to schedule.
+     * @param delay the time until the timer fires, in seconds (rounded up to the next tick).
+     */
+    public void schedule(Timer timer, float delay) {
+        scheduleRepeating(timer, delay, 0);
+    }
+
+    /**
+     * Schedules a timer to fire after the given delay, and then again every period, until it is cancelled.
+     * If the timer is already pending, it is rescheduled instead.
+     * @param timer  the timer to schedule.
+     * @param delay  the time until the timer first fires, in seconds.
+     * @param period the time between consecutive firings, in seconds (0 to fire only once).
+     */
+    public void scheduleRepeating(Timer timer, float delay, float period) {
+        cancel(timer);
+        timer.deadline = this.currentTick + toTicks(delay);
+        timer.periodTicks = period > 0 ? toTicks(period) : 0;
+        insert(timer);
+    }
+
+    /**
+     * Cancels a timer, so it does not fire until it is scheduled again. Cancelling a timer that is not
+     * pending does nothing.
+     * @param timer the timer to cancel.
+     */
+    public void cancel(Timer timer) {
+        if (!timer.isPending())
+            return;
+        if (timer.previous != null)
+            timer.previous.next = timer.next;
+        else
+            this.slots[timer.level][slotOf(timer.deadline, timer.level)] = timer.next;
+        if (timer.next != null)
+            timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+        timer.level = -1;
+        this.pendingCount--;
+    }
+
+    /**
+     * Advances game time, firing every timer whose time has come, in the order of their deadlines.
+     * Should be called once every frame.
+     * @param deltaTime the game time that passed since the previous call.
+     */
+    public void advance(float deltaTime) {
+        this.time += deltaTime;
+        long targetTick = (long) (this.time / this.tickLength);
+        while (this.currentTick < targetTick) {
+            this.currentTick++;
+            // bring down the timers of every level whose turn just started
+            for (int level = 1; level < LEVELS && (this.currentTick & ((1L << (BITS * level)) - 1)) == 0;
+                 level++) {
+                processSlot(level);
+            }
+            processSlot(0);
+        }
+    }
+
+    /*
+     * empties the current slot of a level: timers that are due fire, and the others move to the slot
+     * their deadline now falls in, on a lower level.
+     */
+    private void processSlot(int level) {
+        int slot = slotOf(this.currentTick, level);
+        Timer timer;
+        while ((timer = this.slots[level][slot]) != null) {
+            cancel(timer);
+            if (timer.deadline > this.currentTick) {
+                insert(timer);
+                continue;
+            }
+            if (timer.periodTicks > 0) {
+                timer.deadline += timer.periodTicks;
+                insert(timer);
+            }
+            timer.action.run();
+        }
+    }
+
+    /*
+     * adds a timer to the slot of the lowest level whose current turn contains its deadline.
+     */
+    private void insert(Timer timer) {
+        timer.deadline = Math.min(Math.max(timer.deadline, this.currentTick + 1),
+                                  this.currentTick + MAX_DELAY_TICKS);
+        int level = 0;
+        while (level < LEVELS - 1 &&
+                (timer.deadline >> (BITS * (level + 1))) != (this.currentTick >> (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = slotOf(timer.deadline, level);
+        timer.level = level;
+        timer.previous = null;
+        timer.next = this.slots[level][slot];
+        if (timer.next != null)
+            timer.next.previous = timer;
+        this.slots[level][slot] = timer;
+        this.pendingCount++;
+    }
+
+    /*
+     * returns the slot a tick falls in, on the given level.
+     */
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >> (BITS * level)) & MASK;
+    }
+
+    /*
+     * converts a time in seconds to a whole number of ticks, rounding up.
+     */
+    private long toTicks(float seconds) {
+        return (long) Math.ceil(seconds / this.tickLength);
+    }
+}
@@ -0,0 +1,63 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * The part of the world where things are simulated and rendered - the camera's view, plus a margin around it
+ * so objects are already active when they come into view.
+ * Objects outside of it (leaves of far chunks, far birds) are suspended and hidden, and resume when they
+ * re-enter it, so the cost of a frame depends on what is visible rather than on what is loaded.
+ * Until it first follows a camera, the region contains everything.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ActiveRegion {
+    private final float margin;
+    private float minX = Float.NEGATIVE_INFINITY;
+    private float minY = Float.NEGATIVE_INFINITY;
+    private float maxX = Float.POSITIVE_INFINITY;
+    private float maxY = Float.POSITIVE_INFINITY;
+
+    /**
+     * Constructor.
+     * @param margin the distance around the camera's view that is still active.
+     */
+    public ActiveRegion(float margin) {
+        this.margin = margin;
+    }
+
+    /**
+     * Moves the region to the camera's current view.
+     * @param camera the camera whose view the region follows.
+     */
+    public void update(GameObject camera) {
+        Vector2 topLeftCorner = camera.getTopLeftCorner();
+        Vector2 dimensions = camera.getDimensions();
+        this.minX = topLeftCorner.x() - this.margin;
+        this.minY = topLeftCorner.y() - this.margin;
+        this.maxX = topLeftCorner.x() + dimensions.x() + this.margin;
+        this.maxY = topLeftCorner.y() + dimensions.y() + this.margin;
+    }
+
+    /**
+     * Returns whether a range on the x-axis overlaps the region, at any height.
+     * @param fromX the start of the range.
+     * @param toX   the end of the range.
+     * @return true if the range overlaps the region, false otherwise.
+     */
+    public boolean overlaps(float fromX, float toX) {
+        return toX >= this.minX && fromX <= this.maxX;
+    }
+
+    /**
+     * Returns whether a game object is (at least partly) inside the region.
+     * @param gameObject the object to check.
+     * @return true if the object overlaps the region, false otherwise.
+     */
+    public boolean contains(GameObject gameObject) {
+        Vector2 topLeftCorner = gameObject.getTopLeftCorner();
+        Vector2 dimensions = gameObject.getDimensions();
+        return overlaps(topLeftCorner.x(), topLeftCorner.x() + dimensions.x()) &&
+                topLeftCorner.y() + dimensions.y() >= this.minY && topLeftCorner.y() <= this.maxY;
+    }
+}
@@ -3,14 +3,13 @@ package pepse.world;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.collisions.GameObjectCollection;
-import danogl.components.ScheduledTask;
 import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.world.npcs.Bird;
+import pepse.util.TimerWheel;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 
@@ -18,7 +17,7 @@ import java.awt.event.KeyEvent;
  * An avatar that can move around the world.
  * @author Ethan Glick, Ohad Klein
  */
-public class Avatar extends GameObject implements Damageable {
+public class Avatar extends MovingEntity implements Damageable {
     /**
      * Tag for avatar object.
      */
@@ -32,11 +31,15 @@ public class Avatar extends GameObject implements Damageable {
     private static final float MINIMUM_IMPACT_FOR_DAMAGE = 500;
     private static final float BULLET_SPEED = 500;
     private static final float BULLET_DAMAGE = 30;
-    private static final float energyIncrement = 0.5f;
+    private static final float BULLET_FIRE_RATE = 8;
+    private static final int BULLET_BURST = 3;
+    private static final float ENERGY_RATE = 30; // energy used or regained per second
     private static final double TIME_BETWEEN_CLIPS = 0.2f;
     private static final double TIME_BETWEEN_SHOOTING_CLIPS = 0.1f;
-    private static final float PARTIAL_HEALING_INCREMENT = 0.02f;
+    private static final float PARTIAL_HEALING_RATE = 1.2f; // health regained per second
     private static final float VELOCITY_DAMAGE_DIVIDER = 100;
+    // higher ground is blocked by the buried terrain beneath the surface blocks
+    private static final float MAX_STEP_HEIGHT = 2 * Block.SIZE;
     private static final String STANDING_IMAGE = "assets/avatar/stand.png";
     private static final String[] WALKING_IMAGES = {
             "assets/avatar/walk_1.png",
@@ -63,14 +66,22 @@ public class Avatar extends GameObject implements Damageable {
     private static final Vector2 AVATAR_SIZE = new Vector2(70, 120);
     private static final Vector2 BULLET_SIZE = new Vector2(3,5);
     private static final Vector2 BULLET_START_VECTOR = new Vector2(35, -15);
+    private static final Renderable BULLET_RENDERABLE = new OvalRenderable(Color.YELLOW);
     private Renderable standingRenderable;
     private AnimationRenderable walkingRenderable;
     private AnimationRenderable jumpingRenderable;
     private AnimationRenderable shootingRenderable;
     private AnimationRenderable hurtRenderable;
+    private TimerWheel scheduler;
+    private TimerWheel.Timer hurtTimer;
+    private TimerWheel.Timer jumpTimer;
     private UserInputListener inputListener;
-    private GameObjectCollection gameObjects;
-    private int layer;
+    private GroundCollider groundCollider;
+    private Weapon weapon;
+    private Weapon hitscanWeapon;
+    private boolean isHitscanSelected = false;
+    private boolean wasSwitchPressed = false;
+    private float shootingTimeLeft = 0;
     private float energy = 100;
     private float health = 100;
     private boolean isFacingLeft = false;
@@ -79,7 +90,7 @@ public class Avatar extends GameObject implements Damageable {
     * private constructor.
     * */
     private Avatar(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
-        super(topLeftCorner, dimensions, renderable);
+        super(topLeftCorner, dimensions, renderable, CollisionCategory.AVATAR);
     }
 
     /**
@@ -90,15 +101,28 @@ public class Avatar extends GameObject implements Damageable {
      * @param topLeftCorner The location of the top-left corner of the created avatar.
      * @param inputListener Used for reading input from the user.
      * @param imageReader   Used for reading images from disk or from within a jar.
+     * @param surfaceHeight The height of the ground's surface, which the avatar walks on.
+     * @param projectilePool The pool the avatar's bullets are launched from.
+     * @param hitscanWeapon The weapon the avatar can switch to instead of firing bullets.
+     * @param scheduler     The game's scheduler, which ends the avatar's animations.
      * @return A newly created representing the avatar.
      */
     public static Avatar create(GameObjectCollection gameObjects, int layer, Vector2 topLeftCorner,
-                                UserInputListener inputListener, ImageReader imageReader) {
+                                UserInputListener inputListener, ImageReader imageReader,
+                                GroundHeightFunction surfaceHeight, ProjectilePool projectilePool,
+                                Weapon hitscanWeapon, TimerWheel scheduler) {
         Avatar avatar = new Avatar(topLeftCorner, AVATAR_SIZE,
                                     imageReader.readImage(STANDING_IMAGE,true));
         avatar.inputListener = inputListener;
-        avatar.gameObjects = gameObjects;
-        avatar.layer = layer;
+        avatar.weapon = new ProjectileWeapon(projectilePool, BULLET_SIZE, BULLET_RENDERABLE, BULLET_DAMAGE,
+                                             BULLET_SPEED, BULLET_FIRE_RATE, BULLET_BURST);
+        avatar.hitscanWeapon = hitscanWeapon;
+        avatar.scheduler = scheduler;
+        avatar.hurtTimer = new TimerWheel.Timer(() -> avatar.endAnimation(avatar.hurtRenderable));
+        avatar.jumpTimer = new TimerWheel.Timer(() -> avatar.endAnimation(avatar.jumpingRenderable));
+        avatar.groundCollider = new GroundCollider(avatar, surfaceHeight, MAX_STEP_HEIGHT,
+                                                   avatar::checkForImpactDamage);
+        avatar.addComponent(avatar.groundCollider);
         avatar.physics().preventIntersectionsFromDirection(Vector2.ZERO);
         avatar.transform().setAccelerationY(GRAVITY);
         avatar.setTag(AVATAR_TAG);
@@ -146,26 +170,15 @@ public class Avatar extends GameObject implements Damageable {
     public void takeDamage(float damage) {
         health -= (health - damage > 0) ? damage : health;
         renderer().setRenderable(hurtRenderable);
-        new ScheduledTask(this,
-                (float) TIME_BETWEEN_CLIPS * HURT_IMAGES.length, false,
-                ()-> {if (renderer().getRenderable() == hurtRenderable)
-                    renderer().setRenderable(standingRenderable);});
+        scheduler.schedule(hurtTimer, (float) TIME_BETWEEN_CLIPS * HURT_IMAGES.length);
     }
 
-    /**
-     * Override onCollisionEnter function.
-     * Check for collision with the ground.
-     * @param other the object this object collided with.
-     * @param collision information about the collision.
+    /*
+     * goes back to standing once an animation is over, unless the avatar has moved on to another one.
      */
-    @Override
-    public void onCollisionEnter(GameObject other, Collision collision) {
-        super.onCollisionEnter(other, collision);
-        // stops avatar when it falls onto blocks
-        if (other.getTag().equals(Terrain.TERRAIN_TOP_TAG)) {
-            checkForImpactDamage();
-            transform().setVelocityY(0);
-        }
+    private void endAnimation(Renderable animation) {
+        if (renderer().getRenderable() == animation)
+            renderer().setRenderable(standingRenderable);
     }
 
     /*
@@ -185,7 +198,7 @@ public class Avatar extends GameObject implements Damageable {
     @Override
     public void onCollisionStay(GameObject other, Collision collision) {
         super.onCollisionStay(other, collision);
-        if (other instanceof Bird) {
+        if (categoryOf(other) == CollisionCategory.BIRD) {
             transform().setVelocityX(this.getVelocity().x() + other.getVelocity().x());
         }
     }
@@ -199,9 +212,12 @@ public class Avatar extends GameObject implements Damageable {
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
+        weapon.update(deltaTime);
+        hitscanWeapon.update(deltaTime);
+        updateShootingAnimation(deltaTime);
 
         Renderable renderableX = handleMotionAxisX();
-        Renderable renderableY = handleMotionAxisY();
+        Renderable renderableY = handleMotionAxisY(deltaTime);
         Renderable renderableS = handleShooting();
 
         // assign renderable based on priority: 1) shooting 2) hurt 3) jumping 4) walking
@@ -214,15 +230,16 @@ public class Avatar extends GameObject implements Damageable {
             renderer().setIsFlippedHorizontally(isFacingLeft);
         }
 
-        partiallyHeal();
+        partiallyHeal(deltaTime);
     }
 
     /*
-     * increases the avatar's health until it reaches a multiple of 10.
+     * increases the avatar's health over time, until it reaches a multiple of 10.
      */
-    private void partiallyHeal() {
-        if ((int) health < getNearest10((int) health))
-            health += PARTIAL_HEALING_INCREMENT;
+    private void partiallyHeal(float deltaTime) {
+        int target = getNearest10((int) health);
+        if ((int) health < target)
+            health = Math.min(target, health + PARTIAL_HEALING_RATE * deltaTime);
     }
 
     /*
@@ -233,56 +250,70 @@ public class Avatar extends GameObject implements Damageable {
     }
 
     /*
-     * handles user input for shooting.
+     * handles user input for shooting, and for switching between bullets and the hitscan weapon.
      */
     private Renderable handleShooting() {
+        // switch weapons once per press of the key
+        boolean isSwitchPressed = inputListener.isKeyPressed(KeyEvent.VK_H);
+        if (isSwitchPressed && !wasSwitchPressed)
+            isHitscanSelected = !isHitscanSelected;
+        wasSwitchPressed = isSwitchPressed;
+
         if (inputListener.isKeyPressed(KeyEvent.VK_S)) {
             boolean goUp = inputListener.isKeyPressed(KeyEvent.VK_UP);
-            Vector2 bulletVelocity =
-                    new Vector2(goUp? 0 : 1, goUp? -1 : 0).mult(BULLET_SPEED).multX(isFacingLeft? -1 : 1);
+            Vector2 direction = goUp ? Vector2.UP : (isFacingLeft ? Vector2.LEFT : Vector2.RIGHT);
             Vector2 startPos = this.getCenter().add(BULLET_START_VECTOR.multX((isFacingLeft? -1 : 1)));
-            Projectile bullet = new Projectile(
-                    startPos, BULLET_SIZE,new OvalRenderable(Color.YELLOW),
-                    gameObjects, BULLET_DAMAGE, bulletVelocity, AVATAR_TAG, this::getTopLeftCorner);
-            gameObjects.addGameObject(bullet, layer);
+            (isHitscanSelected ? hitscanWeapon : weapon).fire(startPos, direction, CollisionCategory.AVATAR);
 
-            new ScheduledTask(this,
-                    (float) TIME_BETWEEN_SHOOTING_CLIPS * SHOOTING_IMAGES.length, false,
-                    ()-> {if (renderer().getRenderable() == shootingRenderable)
-                        renderer().setRenderable(standingRenderable);});
+            shootingTimeLeft = (float) TIME_BETWEEN_SHOOTING_CLIPS * SHOOTING_IMAGES.length;
             return shootingRenderable;
         }
 
         return null;
     }
 
+    /*
+     * returns the avatar to standing once the shooting animation has played since the last shot.
+     */
+    private void updateShootingAnimation(float deltaTime) {
+        if (shootingTimeLeft <= 0)
+            return;
+        shootingTimeLeft -= deltaTime;
+        if (shootingTimeLeft <= 0 && renderer().getRenderable() == shootingRenderable)
+            renderer().setRenderable(standingRenderable);
+    }
+
     /*
      * handles user input for Y axis motion.
      */
-    private Renderable handleMotionAxisY() {
+    private Renderable handleMotionAxisY(float deltaTime) {
         // fly - only when we have energy
         if (inputListener.isKeyPressed(KeyEvent.VK_SPACE) &&
                 inputListener.isKeyPressed(KeyEvent.VK_SHIFT) && energy > 0) {
-            energy -= energyIncrement;
+            energy = Math.max(0, energy - ENERGY_RATE * deltaTime);
             transform().setVelocityY(FLY_VELOCITY);
         }
         // jump - only when on ground
-        else if (inputListener.isKeyPressed(KeyEvent.VK_SPACE) && getVelocity().y() == 0) {
+        else if (inputListener.isKeyPressed(KeyEvent.VK_SPACE) && isOnGround()) {
             transform().setVelocityY(JUMP_VELOCITY);
-            new ScheduledTask(this,
-                    (float) TIME_BETWEEN_CLIPS * JUMPING_IMAGES.length, false,
-                    ()-> {if (renderer().getRenderable() == jumpingRenderable)
-                        renderer().setRenderable(standingRenderable);});
+            scheduler.schedule(jumpTimer, (float) TIME_BETWEEN_CLIPS * JUMPING_IMAGES.length);
             if (renderer().getRenderable() != shootingRenderable)
                 return jumpingRenderable;
         }
-        else if (getVelocity().y() == 0 && energy < MAX_ENERGY) {
-            energy += energyIncrement;
+        else if (isOnGround() && energy < MAX_ENERGY) {
+            energy = Math.min(MAX_ENERGY, energy + ENERGY_RATE * deltaTime);
         }
 
         return null;
     }
 
+    /*
+     * returns whether the avatar is standing - on the ground, or on anything else that stops its fall.
+     */
+    private boolean isOnGround() {
+        return groundCollider.isGrounded() || getVelocity().y() == 0;
+    }
+
     /*
      * handles user input for X axis motion.
      */
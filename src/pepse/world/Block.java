@@ -1,6 +1,5 @@
 package pepse.world;
 
-import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
@@ -9,22 +8,81 @@ import danogl.util.Vector2;
  * Represents a single block (larger objects can be created from blocks).
  * @author Ethan Glick, Ohad Klein
  */
-public class Block extends GameObject {
+public class Block extends Entity {
     public static final String BLOCK_TAG = "block";
     /**
      * Size of a single block.
      */
     public static final int SIZE = 30;
 
+    private Renderable hiddenRenderable;
+
     /**
      * Constructor.
      * @param topLeftCorner The location of the top-left corner of the created block.
      * @param renderable    A renderable to render as the block.
      */
     public Block(Vector2 topLeftCorner, Renderable renderable) {
-        super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+        super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable, CollisionCategory.GROUND);
+        physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        setTag(BLOCK_TAG);
+    }
+
+    /**
+     * Constructor for a column of blocks merged into a single object.
+     * @param topLeftCorner The location of the top-left corner of the created column.
+     * @param depth         The number of blocks stacked in the column.
+     * @param renderable    A renderable to render as the column.
+     */
+    public Block(Vector2 topLeftCorner, int depth, Renderable renderable) {
+        super(topLeftCorner, new Vector2(SIZE, SIZE * depth), renderable, CollisionCategory.GROUND);
+        physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        setTag(BLOCK_TAG);
+    }
+
+    /**
+     * Prepares a block taken from a pool to be reused at a new location, restoring the state
+     * a newly constructed block has (other than its size).
+     * @param topLeftCorner The new location of the top-left corner of the block.
+     * @param renderable    A renderable to render as the block.
+     */
+    public void reset(Vector2 topLeftCorner, Renderable renderable) {
+        this.hiddenRenderable = null;
+        setTopLeftCorner(topLeftCorner);
+        renderer().setRenderable(renderable);
+        setVelocity(Vector2.ZERO);
+        transform().setAcceleration(Vector2.ZERO);
+        renderer().setRenderableAngle(0);
+        renderer().setOpaqueness(1);
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
         setTag(BLOCK_TAG);
+        setCategory(CollisionCategory.GROUND);
+    }
+
+    /**
+     * Shows or hides the block. A hidden block is not rendered, but otherwise stays in the game.
+     * @param visible whether the block should be rendered.
+     */
+    public void setVisible(boolean visible) {
+        if (visible == isVisible())
+            return;
+        if (visible) {
+            renderer().setRenderable(this.hiddenRenderable);
+            this.hiddenRenderable = null;
+        } else {
+            this.hiddenRenderable = renderer().getRenderable();
+            renderer().setRenderable(null);
+        }
+    }
+
+    /**
+     * Returns whether the block is rendered.
+     * @return false if the block was hidden, true otherwise.
+     */
+    public boolean isVisible() {
+        return this.hiddenRenderable == null;
     }
 }
@@ -0,0 +1,49 @@
+package pepse.world;
+
+import pepse.util.ObjectPool;
+
+/**
+ * Holds the pools of blocks that chunks draw from when they are built and return to when they are destroyed,
+ * so walking through the world reuses the same blocks instead of allocating new ones.
+ * Blocks of different sizes or classes are kept in separate pools.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class BlockPools {
+    private final ObjectPool<Block> blocks = new ObjectPool<>();
+    private final ObjectPool<Block> columns = new ObjectPool<>();
+    private final ObjectPool<Block> leaves = new ObjectPool<>();
+
+    /**
+     * Getter.
+     * @return the pool of single blocks (top terrain and tree trunk blocks).
+     */
+    public ObjectPool<Block> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Getter.
+     * @return the pool of buried terrain columns.
+     */
+    public ObjectPool<Block> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Getter.
+     * @return the pool of leaves.
+     */
+    public ObjectPool<Block> getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * Makes the blocks released since the last call available for reuse.
+     * Should be called once every frame.
+     */
+    public void recycle() {
+        blocks.recycle();
+        columns.recycle();
+        leaves.recycle();
+    }
+}
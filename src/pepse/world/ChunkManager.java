@@ -0,0 +1,205 @@
+package pepse.world;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+import pepse.util.RandomStreams;
+
+/**
+ * Streams World chunks in and out of the game around a moving x position.
+ * The world is divided into chunks of a fixed number of block columns, where chunk i starts at
+ * x = i * chunkWidth and its terrain is shaped by the seed worldSeed + i, while the rest of its randomness
+ * comes from the game's random streams, so revisited chunks look the same.
+ * Chunks within the load radius of the current chunk are loaded, and are only unloaded once they are
+ * further away than the load radius plus a hysteresis band, so walking back and forth across a chunk
+ * boundary does not regenerate anything.
+ * Loaded chunks are kept in a ring buffer indexed by chunk index, for O(1) lookup by x.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ChunkManager {
+    private final GameObjectCollection gameObjects;
+    private final Vector2 windowDimensions;
+    private final ChunkPipeline pipeline;
+    private final RandomStreams randomStreams;
+    private final int chunkWidth;
+    private final int loadRadius;
+    private final int unloadRadius;
+    private final World[] chunks;
+    private int firstLoaded;
+    private int lastLoaded;
+
+    /**
+     * Constructor.
+     * @param gameObjects      The collection of all participating game objects.
+     * @param windowDimensions The dimensions of the windows.
+     * @param pipeline         The pipeline through which chunks are loaded and unloaded.
+     * @param randomStreams    The source of the chunks' randomness (chunk i's terrain is shaped by the
+     *                         seed worldSeed + i).
+     * @param chunkColumns     The number of block columns in every chunk.
+     * @param loadRadius       The number of chunks on each side of the current chunk to keep loaded.
+     * @param hysteresis       The number of chunks beyond the load radius before a chunk is unloaded.
+     */
+    public ChunkManager(GameObjectCollection gameObjects, Vector2 windowDimensions, ChunkPipeline pipeline,
+                        RandomStreams randomStreams, int chunkColumns, int loadRadius, int hysteresis) {
+        this.gameObjects = gameObjects;
+        this.windowDimensions = windowDimensions;
+        this.pipeline = pipeline;
+        this.randomStreams = randomStreams;
+        this.chunkWidth = chunkColumns * Block.SIZE;
+        this.loadRadius = loadRadius;
+        this.unloadRadius = loadRadius + hysteresis;
+        // every chunk that can be loaded at once gets its own slot
+        this.chunks = new World[2 * this.unloadRadius + 1];
+        this.firstLoaded = 0;
+        this.lastLoaded = -1;
+    }
+
+    /**
+     * Getter.
+     * @return the width of a single chunk.
+     */
+    public int getChunkWidth() {
+        return this.chunkWidth;
+    }
+
+    /**
+     * Getter.
+     * @return the number of chunks currently loaded (or loading).
+     */
+    public int getLoadedCount() {
+        return this.lastLoaded - this.firstLoaded + 1;
+    }
+
+    /**
+     * Returns the index of the chunk containing a given location.
+     * @param x the location on the x-axis.
+     * @return the index of the chunk containing x.
+     */
+    public int chunkIndexAt(float x) {
+        return Math.floorDiv((int) Math.floor(x), this.chunkWidth);
+    }
+
+    /**
+     * Returns the chunk containing a given location.
+     * @param x the location on the x-axis.
+     * @return the chunk containing x, or null if it is not loaded.
+     */
+    public World getChunkAt(float x) {
+        int index = chunkIndexAt(x);
+        if (index < this.firstLoaded || index > this.lastLoaded)
+            return null;
+        return this.chunks[slotOf(index)];
+    }
+
+    /**
+     * Returns the ground height at a given location.
+     * @param x the location on the x-axis.
+     * @return the ground height at x, or positive infinity if no chunk is loaded there.
+     */
+    public float groundHeightAt(float x) {
+        World chunk = getChunkAt(x);
+        return chunk == null ? Float.POSITIVE_INFINITY : chunk.getTerrain().groundHeightAt(x);
+    }
+
+    /**
+     * Returns the height of the terrain's surface (the top of its blocks) at a given location.
+     * @param x the location on the x-axis.
+     * @return the surface height at x, or positive infinity if no chunk is loaded there.
+     */
+    public float surfaceHeightAt(float x) {
+        World chunk = getChunkAt(x);
+        return chunk == null ? Float.POSITIVE_INFINITY : chunk.getTerrain().surfaceHeightAt(x);
+    }
+
+    /**
+     * Returns the height of the top of the tree trunk at a given location.
+     * @param x the location on the x-axis.
+     * @return the y coordinate of the trunk's top, or positive infinity if there is no tree (or no chunk).
+     */
+    public float trunkTopAt(float x) {
+        World chunk = getChunkAt(x);
+        return chunk == null ? Float.POSITIVE_INFINITY : chunk.trunkTopAt(x);
+    }
+
+    /**
+     * Loads all the chunks within the load radius of a given location immediately.
+     * Used when the game starts, when there is nothing to stand on yet.
+     * @param x the location on the x-axis.
+     */
+    public void loadNow(float x) {
+        updateLoadedRange(x, true);
+    }
+
+    /**
+     * Loads the chunks that came within the load radius of a given location, and unloads those that left
+     * the hysteresis band around it.
+     * @param x the location on the x-axis (usually the avatar's).
+     */
+    public void update(float x) {
+        updateLoadedRange(x, false);
+    }
+
+    /**
+     * Activates the loaded chunks that overlap the active region, and suspends the rest.
+     * @param activeRegion the region of the world currently being simulated.
+     */
+    public void updateActivity(ActiveRegion activeRegion) {
+        for (int index = this.firstLoaded; index <= this.lastLoaded; index++) {
+            World chunk = this.chunks[slotOf(index)];
+            chunk.setActive(activeRegion.overlaps(chunk.getFirstX(), chunk.getLastX()));
+        }
+    }
+
+    /*
+     * moves the range of loaded chunks to surround the given location.
+     */
+    private void updateLoadedRange(float x, boolean immediately) {
+        int center = chunkIndexAt(x);
+        while (getLoadedCount() > 0 && this.firstLoaded < center - this.unloadRadius) {
+            unload(this.firstLoaded++);
+        }
+        while (getLoadedCount() > 0 && this.lastLoaded > center + this.unloadRadius) {
+            unload(this.lastLoaded--);
+        }
+        if (getLoadedCount() == 0) {
+            this.firstLoaded = center;
+            this.lastLoaded = center - 1;
+        }
+        while (this.lastLoaded < center + this.loadRadius) {
+            load(++this.lastLoaded, immediately);
+        }
+        while (this.firstLoaded > center - this.loadRadius) {
+            load(--this.firstLoaded, immediately);
+        }
+    }
+
+    /*
+     * creates a chunk and loads it (or starts loading it in the background).
+     */
+    private void load(int index, boolean immediately) {
+        int start = index * this.chunkWidth;
+        World chunk = new World(this.randomStreams.getWorldSeed() + index, start,
+                                start + this.chunkWidth - Block.SIZE, this.gameObjects, this.windowDimensions,
+                                this.randomStreams, this.pipeline.getBlockPools(), this::surfaceHeightAt);
+        this.chunks[slotOf(index)] = chunk;
+        if (immediately)
+            this.pipeline.loadNow(chunk);
+        else
+            this.pipeline.load(chunk);
+    }
+
+    /*
+     * starts unloading a chunk.
+     */
+    private void unload(int index) {
+        int slot = slotOf(index);
+        this.pipeline.unload(this.chunks[slot]);
+        this.chunks[slot] = null;
+    }
+
+    /*
+     * returns the ring buffer slot of the chunk with the given index.
+     */
+    private int slotOf(int index) {
+        return Math.floorMod(index, this.chunks.length);
+    }
+}
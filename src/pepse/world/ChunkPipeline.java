@@ -0,0 +1,237 @@
+package pepse.world;
+
+import pepse.metrics.ChunkEvent;
+import pepse.metrics.Counter;
+import pepse.metrics.Histogram;
+import pepse.metrics.MetricsRegistry;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads and unloads World chunks without stalling a frame.
+ * A chunk's data (heights, tree positions, colors) is generated on background worker threads, and its
+ * game objects are then added to (or removed from) the game a few at a time, under a per-frame budget.
+ * The pipeline can also run deterministically, for recorded sessions and their replays: each world is then
+ * built a fixed number of frames after it was loaded (waiting for its generation if it is late), and only
+ * the number of objects limits a frame, so the same frames add and remove the same objects in every run.
+ * The pipeline times its work on every chunk into a MetricsRegistry, and publishes it as pepse.Chunk events
+ * to the JDK Flight Recorder.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ChunkPipeline {
+    private static final int WORKER_THREADS =
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "chunk-generator");
+        thread.setDaemon(true); // never keep the game alive
+        return thread;
+    });
+    private static final int OBJECTS_PER_SLICE = 32;
+    private static final long NANOS_PER_MILLI = 1000000;
+
+    private final int maxObjectsPerFrame;
+    private final long maxNanosPerFrame;
+    private final int generationFrames;
+    private final LinkedHashMap<World, PendingWorld> worldsToBuild;
+    private final ArrayDeque<World> worldsToDestroy;
+    private final BlockPools blockPools;
+    private final Histogram generationTimes;
+    private final Histogram buildTimes;
+    private final Histogram destructionTimes;
+    private final Counter generatedChunks;
+    private final Counter builtObjects;
+    private final Counter destroyedObjects;
+    private long frame = 0;
+
+    /*
+     * a world being generated in the background, and the first frame it may be built at.
+     */
+    private static class PendingWorld {
+        private final Future<?> generation;
+        private final long buildFrame;
+
+        PendingWorld(Future<?> generation, long buildFrame) {
+            this.generation = generation;
+            this.buildFrame = buildFrame;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param maxObjectsPerFrame the maximal number of game objects to add or remove in a single frame.
+     * @param maxMillisPerFrame  the maximal time to spend adding or removing game objects in a single frame,
+     *                           or 0 for no time limit.
+     * @param generationFrames   the number of frames a world is given to generate before it is built, waiting
+     *                           for its generation if it is not done by then; or 0 to build worlds as soon as
+     *                           their generation is done.
+     * @param metrics            the registry to record the pipeline's metrics in.
+     */
+    public ChunkPipeline(int maxObjectsPerFrame, float maxMillisPerFrame, int generationFrames,
+                         MetricsRegistry metrics) {
+        this.maxObjectsPerFrame = maxObjectsPerFrame;
+        this.maxNanosPerFrame = maxMillisPerFrame > 0 ? (long) (maxMillisPerFrame * NANOS_PER_MILLI) :
+                                                        Long.MAX_VALUE;
+        this.generationFrames = generationFrames;
+        this.worldsToBuild = new LinkedHashMap<>();
+        this.worldsToDestroy = new ArrayDeque<>();
+        this.blockPools = new BlockPools();
+        this.generationTimes = metrics.histogram("chunk.generate.nanos");
+        this.buildTimes = metrics.histogram("chunk.build.nanos");
+        this.destructionTimes = metrics.histogram("chunk.destroy.nanos");
+        this.generatedChunks = metrics.counter("chunk.generated");
+        this.builtObjects = metrics.counter("chunk.objectsBuilt");
+        this.destroyedObjects = metrics.counter("chunk.objectsDestroyed");
+    }
+
+    /**
+     * Getter.
+     * @return the pools that worlds loaded by this pipeline should take their blocks from.
+     */
+    public BlockPools getBlockPools() {
+        return this.blockPools;
+    }
+
+    /**
+     * Generates and builds a world immediately, in the calling thread.
+     * @param world the world to load.
+     */
+    public void loadNow(World world) {
+        generate(world);
+        ChunkEvent event = ChunkEvent.beginIfEnabled();
+        long start = System.nanoTime();
+        int built = world.build(Integer.MAX_VALUE);
+        this.builtObjects.add(built);
+        recordWork(event, "build", this.buildTimes, world, built, System.nanoTime() - start);
+    }
+
+    /**
+     * Starts generating a world in the background. Its game objects will be added by later calls to update().
+     * @param world the world to load.
+     */
+    public void load(World world) {
+        this.worldsToBuild.put(world, new PendingWorld(WORKERS.submit(() -> generate(world)),
+                                                       this.frame + this.generationFrames));
+    }
+
+    /**
+     * Schedules the removal of a world's game objects, by later calls to update().
+     * If the world has not finished loading, its loading is abandoned.
+     * @param world the world to unload.
+     */
+    public void unload(World world) {
+        PendingWorld pending = this.worldsToBuild.remove(world);
+        if (pending != null)
+            pending.generation.cancel(false);
+        this.worldsToDestroy.addLast(world);
+    }
+
+    /**
+     * Returns the number of worlds that are still waiting to be built or destroyed.
+     * @return the number of pending worlds.
+     */
+    public int getPendingCount() {
+        return this.worldsToBuild.size() + this.worldsToDestroy.size();
+    }
+
+    /**
+     * Adds and removes pending game objects, within the per-frame budget.
+     * Blocks removed in the previous frame become available for reuse.
+     * Should be called once every frame.
+     */
+    public void update() {
+        long startTime = System.nanoTime();
+        int budget = this.maxObjectsPerFrame;
+        this.frame++;
+        this.blockPools.recycle();
+
+        // destroy first, so objects leave the game before new ones join it
+        while (!this.worldsToDestroy.isEmpty() && budget > 0 && hasTimeLeft(startTime)) {
+            World world = this.worldsToDestroy.peekFirst();
+            ChunkEvent event = ChunkEvent.beginIfEnabled();
+            long worldStart = System.nanoTime();
+            int destroyed = 0;
+            while (!world.isDestroyed() && budget > 0 && hasTimeLeft(startTime)) {
+                int slice = world.destroy(Math.min(budget, OBJECTS_PER_SLICE));
+                destroyed += slice;
+                budget -= slice;
+            }
+            this.destroyedObjects.add(destroyed);
+            recordWork(event, "destroy", this.destructionTimes, world, destroyed,
+                       System.nanoTime() - worldStart);
+            if (world.isDestroyed())
+                this.worldsToDestroy.pollFirst();
+        }
+
+        Iterator<Map.Entry<World, PendingWorld>> iterator = this.worldsToBuild.entrySet().iterator();
+        while (iterator.hasNext() && budget > 0 && hasTimeLeft(startTime)) {
+            Map.Entry<World, PendingWorld> entry = iterator.next();
+            PendingWorld pending = entry.getValue();
+            boolean ready = this.generationFrames > 0 ? this.frame >= pending.buildFrame :
+                                                        pending.generation.isDone();
+            if (!ready)
+                continue;
+            awaitGeneration(pending.generation);
+            World world = entry.getKey();
+            ChunkEvent event = ChunkEvent.beginIfEnabled();
+            long worldStart = System.nanoTime();
+            int built = 0;
+            while (!world.isBuilt() && budget > 0 && hasTimeLeft(startTime)) {
+                int slice = world.build(Math.min(budget, OBJECTS_PER_SLICE));
+                built += slice;
+                budget -= slice;
+            }
+            this.builtObjects.add(built);
+            recordWork(event, "build", this.buildTimes, world, built, System.nanoTime() - worldStart);
+            if (world.isBuilt())
+                iterator.remove();
+        }
+    }
+
+    /*
+     * generates a world's data, timing it. May run on a worker thread.
+     */
+    private void generate(World world) {
+        ChunkEvent event = ChunkEvent.beginIfEnabled();
+        long start = System.nanoTime();
+        world.generate();
+        this.generatedChunks.increment();
+        recordWork(event, "generate", this.generationTimes, world, world.getObjectCount(),
+                   System.nanoTime() - start);
+    }
+
+    /*
+     * records the time spent on a world in a histogram, and commits its chunk event (if one was started).
+     */
+    private static void recordWork(ChunkEvent event, String operation, Histogram times, World world,
+                                   int objects, long nanos) {
+        times.record(nanos);
+        ChunkEvent.record(event, operation, world.getFirstX(), world.getColumnCount(), objects);
+    }
+
+    /*
+     * checks if the frame's time budget, counted from the given start time, has not run out yet.
+     */
+    private boolean hasTimeLeft(long startTime) {
+        return System.nanoTime() - startTime < this.maxNanosPerFrame;
+    }
+
+    /*
+     * Waits for a finished generation, so its results are visible to this thread,
+     * and rethrows anything that failed it.
+     */
+    private static void awaitGeneration(Future<?> generation) {
+        try {
+            generation.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("world generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
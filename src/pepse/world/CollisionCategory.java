@@ -0,0 +1,50 @@
+package pepse.world;
+
+/**
+ * The collision categories of entities, as bits of an int, and the matrix of which categories collide.
+ * Layers decide which groups of objects are tested against each other at all; within them, an entity only
+ * collides with the categories in its mask, which the engine checks with a single AND before testing the
+ * pair's shapes.
+ * @author Ohad Klein, Ethan Glick
+ */
+public final class CollisionCategory {
+    /** objects that are not entities, which entities do not collide with. */
+    public static final int NONE = 0;
+    /** the avatar. */
+    public static final int AVATAR = 1;
+    /** birds. */
+    public static final int BIRD = 1 << 1;
+    /** bullets and droppings. */
+    public static final int PROJECTILE = 1 << 2;
+    /** terrain blocks. */
+    public static final int GROUND = 1 << 3;
+    /** tree trunk blocks. */
+    public static final int TRUNK = 1 << 4;
+    /** leaves. */
+    public static final int LEAF = 1 << 5;
+
+    /* private constructor - only holds constants */
+    private CollisionCategory() {
+    }
+
+    /**
+     * Returns the categories that entities of a category collide with.
+     * @param category a single category.
+     * @return the mask of the categories it collides with.
+     */
+    public static int maskOf(int category) {
+        switch (category) {
+            case AVATAR:
+                return BIRD | PROJECTILE | GROUND | TRUNK;
+            case BIRD:
+                return AVATAR | PROJECTILE | GROUND | TRUNK; // not other birds - the flock keeps them apart
+            case PROJECTILE:
+                return AVATAR | BIRD | GROUND | TRUNK;
+            case GROUND:
+            case TRUNK:
+                return AVATAR | BIRD | PROJECTILE;
+            default:
+                return NONE;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A game object that can be kept in an EntitySet, and collides by collision category.
+ * An entity remembers the set holding it and its index in that set, so it is added to and removed from the
+ * set in constant time. An entity belongs to at most one set at a time.
+ * An entity has a single CollisionCategory, and a mask of the categories it collides with.
+ * @author Ohad Klein, Ethan Glick
+ */
+public abstract class Entity extends GameObject {
+    EntitySet<?> set; // the set holding the entity, or null if none does
+    int setIndex = -1;
+    private int category;
+    private int collisionMask;
+
+    /**
+     * Constructor.
+     * @param topLeftCorner The location of the top-left corner of the created entity.
+     * @param dimensions    The entity's size.
+     * @param renderable    A renderable to render as the entity.
+     * @param category      The entity's CollisionCategory.
+     */
+    protected Entity(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, int category) {
+        super(topLeftCorner, dimensions, renderable);
+        setCategory(category);
+    }
+
+    /**
+     * Returns the collision category of a game object.
+     * @param gameObject the object.
+     * @return the object's category if it is an entity, CollisionCategory.NONE otherwise.
+     */
+    public static int categoryOf(GameObject gameObject) {
+        return gameObject instanceof Entity ? ((Entity) gameObject).category : CollisionCategory.NONE;
+    }
+
+    /**
+     * Getter.
+     * @return the entity's collision category.
+     */
+    public int getCategory() {
+        return this.category;
+    }
+
+    /**
+     * Sets the entity's collision category, and resets its mask to the categories that category collides
+     * with.
+     * @param category the entity's new CollisionCategory.
+     */
+    public void setCategory(int category) {
+        this.category = category;
+        this.collisionMask = CollisionCategory.maskOf(category);
+    }
+
+    /**
+     * Sets the categories the entity collides with.
+     * @param collisionMask the categories, as bits.
+     */
+    public void setCollisionMask(int collisionMask) {
+        this.collisionMask = collisionMask;
+    }
+
+    /**
+     * Override of shouldCollideWith: the entity only collides with objects of the categories in its mask.
+     * @param other the object that this object might collide with.
+     * @return true if the other object's category is in the entity's mask, false otherwise.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return (this.collisionMask & categoryOf(other)) != 0;
+    }
+}
@@ -0,0 +1,36 @@
+package pepse.world;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The central registry of the game's entities, holding one EntitySet per type of entity (birds,
+ * projectiles...). Systems look up the set of the type they work on once, and then go over it directly.
+ * Entities that belong to a part of the world, such as the blocks of a chunk, are kept in the sets of that
+ * part instead, so they can be torn down together.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class EntityRegistry {
+    private final Map<Class<?>, EntitySet<?>> sets = new HashMap<>();
+
+    /**
+     * Returns the set of the entities of a type, creating it on first use.
+     * @param type the type of the entities.
+     * @param <T>  the type of the entities.
+     * @return the set of the registered entities of that type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Entity> EntitySet<T> setOf(Class<T> type) {
+        return (EntitySet<T>) this.sets.computeIfAbsent(type, key -> new EntitySet<T>());
+    }
+
+    /**
+     * Returns the number of registered entities of a type.
+     * @param type the type of the entities.
+     * @return the size of the type's set, or 0 if it has none.
+     */
+    public int count(Class<? extends Entity> type) {
+        EntitySet<?> set = this.sets.get(type);
+        return set == null ? 0 : set.size();
+    }
+}
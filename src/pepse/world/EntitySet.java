@@ -0,0 +1,136 @@
+package pepse.world;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of entities kept densely in an array, in no particular order.
+ * Adding and removing an entity take constant time (a removed entity's place is filled by the last one), and
+ * iterating over the set only touches its own entities, so a system can go over the birds, the projectiles or
+ * the blocks of a chunk without scanning any other objects.
+ * @param <T> the type of the entities in the set.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class EntitySet<T extends Entity> implements Iterable<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Entity[] entities = new Entity[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds an entity to the set.
+     * @param entity the entity to add, which should not be in any set.
+     * @throws IllegalArgumentException if the entity is already in a set.
+     */
+    public void add(T entity) {
+        if (entity.set != null)
+            throw new IllegalArgumentException("entity is already in a set");
+        if (this.size == this.entities.length)
+            this.entities = Arrays.copyOf(this.entities, 2 * this.size);
+        entity.set = this;
+        entity.setIndex = this.size;
+        this.entities[this.size++] = entity;
+    }
+
+    /**
+     * Removes an entity from the set. Removing an entity that is not in the set does nothing.
+     * @param entity the entity to remove.
+     * @return true if the entity was in the set, false otherwise.
+     */
+    public boolean remove(T entity) {
+        if (entity.set != this)
+            return false;
+        removeAt(entity.setIndex);
+        return true;
+    }
+
+    /**
+     * Removes the entity at the end of the set.
+     * @return the removed entity.
+     * @throws NoSuchElementException if the set is empty.
+     */
+    public T removeLast() {
+        if (this.size == 0)
+            throw new NoSuchElementException();
+        T entity = get(this.size - 1);
+        removeAt(this.size - 1);
+        return entity;
+    }
+
+    /**
+     * Returns whether an entity is in the set.
+     * @param entity the entity to check.
+     * @return true if the entity is in the set, false otherwise.
+     */
+    public boolean contains(Entity entity) {
+        return entity.set == this;
+    }
+
+    /**
+     * Returns the entity at an index of the set. Indices change as entities are removed.
+     * @param index an index between 0 (inclusive) and the size of the set (exclusive).
+     * @return the entity at that index.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index >= this.size)
+            throw new IndexOutOfBoundsException(index);
+        return (T) this.entities[index];
+    }
+
+    /**
+     * Getter.
+     * @return the number of entities in the set.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Getter.
+     * @return true if the set holds no entities, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns an iterator over the entities of the set. The set should not change during the iteration -
+     * to remove entities while going over the set, go over its indices from the last one down instead.
+     * @return an iterator over the entities of the set.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < size;
+            }
+
+            @Override
+            public T next() {
+                if (this.next >= size)
+                    throw new NoSuchElementException();
+                return get(this.next++);
+            }
+        };
+    }
+
+    /*
+     * removes the entity at an index, moving the last entity into its place.
+     */
+    private void removeAt(int index) {
+        Entity entity = this.entities[index];
+        entity.set = null;
+        entity.setIndex = -1;
+        int last = --this.size;
+        if (index != last) {
+            this.entities[index] = this.entities[last];
+            this.entities[index].setIndex = index;
+        }
+        this.entities[last] = null;
+    }
+}
@@ -0,0 +1,103 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.components.Component;
+import danogl.util.Vector2;
+
+/**
+ * A component that keeps a game object from falling through the ground, by checking its bottom against
+ * the terrain's surface height directly instead of colliding it with terrain blocks.
+ * Since the check compares positions rather than overlapping objects, a fast fall (or a long frame) can
+ * never tunnel through the ground.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class GroundCollider implements Component {
+    private static final float TOLERANCE = 1;
+
+    private final GameObject gameObject;
+    private final GroundHeightFunction surfaceHeight;
+    private final float maxStepHeight;
+    private final Runnable onLanding;
+    private boolean isGrounded = false;
+    private float previousBottom = Float.NEGATIVE_INFINITY;
+
+    /**
+     * Constructor.
+     * @param gameObject    the object to keep above the ground.
+     * @param surfaceHeight a function providing the height of the ground's surface at a given location.
+     * @param maxStepHeight the highest step of ground the object climbs onto when moving sideways into it
+     *                      (higher ground is left for the object's own collisions to handle).
+     * @param onLanding     called when the object lands on the ground, before its fall is stopped
+     *                      (may be null).
+     */
+    public GroundCollider(GameObject gameObject, GroundHeightFunction surfaceHeight, float maxStepHeight,
+                          Runnable onLanding) {
+        this.gameObject = gameObject;
+        this.surfaceHeight = surfaceHeight;
+        this.maxStepHeight = maxStepHeight;
+        this.onLanding = onLanding;
+    }
+
+    /**
+     * Forgets the object's previous contact with the ground, for an object that is reused elsewhere.
+     */
+    public void reset() {
+        this.isGrounded = false;
+        this.previousBottom = Float.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Getter.
+     * @return whether the object was standing on the ground at the last update.
+     */
+    public boolean isGrounded() {
+        return isGrounded;
+    }
+
+    /**
+     * Stops the object from falling through the ground, lifting it back onto the surface if needed.
+     * The surface is sampled below the object's center, and below its edges if it is wider than a block.
+     * @param deltaTime the time since the previous frame.
+     */
+    @Override
+    public void update(float deltaTime) {
+        Vector2 topLeftCorner = gameObject.getTopLeftCorner();
+        Vector2 dimensions = gameObject.getDimensions();
+        float bottom = topLeftCorner.y() + dimensions.y();
+
+        float ground = contactHeightAt(topLeftCorner.x() + dimensions.x() / 2, bottom);
+        if (dimensions.x() > Block.SIZE) {
+            ground = Math.min(ground, contactHeightAt(topLeftCorner.x() + TOLERANCE, bottom));
+            float rightEdge = topLeftCorner.x() + dimensions.x() - TOLERANCE;
+            ground = Math.min(ground, contactHeightAt(rightEdge, bottom));
+        }
+
+        boolean wasGrounded = isGrounded;
+        isGrounded = ground != Float.POSITIVE_INFINITY && gameObject.getVelocity().y() >= 0;
+        previousBottom = bottom;
+        if (!isGrounded)
+            return;
+
+        if (!wasGrounded && onLanding != null)
+            onLanding.run();
+        gameObject.transform().setVelocityY(0);
+        if (bottom > ground) {
+            gameObject.setTopLeftCorner(new Vector2(topLeftCorner.x(), ground - dimensions.y()));
+            previousBottom = ground;
+        }
+    }
+
+    /*
+     * returns the surface height at x if the object's bottom touches it there, or positive infinity if not.
+     * Ground the object has only reached by moving sideways into it, and that is higher than a step,
+     * is not considered touched.
+     */
+    private float contactHeightAt(float x, float bottom) {
+        float surface = surfaceHeight.groundHeightAt(x);
+        if (bottom < surface - TOLERANCE)
+            return Float.POSITIVE_INFINITY;
+        if (bottom - surface > maxStepHeight && previousBottom > surface + TOLERANCE)
+            return Float.POSITIVE_INFINITY;
+        return surface;
+    }
+}
@@ -0,0 +1,16 @@
+package pepse.world;
+
+/**
+ * A function that provides the ground height at a given x location, without boxing its argument
+ * or result.
+ * @author Ohad Klein, Ethan Glick
+ */
+@FunctionalInterface
+public interface GroundHeightFunction {
+    /**
+     * Returns the ground height at a given location.
+     * @param x the location on the x-axis.
+     * @return the ground height at the given location.
+     */
+    float groundHeightAt(float x);
+}
@@ -0,0 +1,168 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import java.awt.*;
+
+/**
+ * A weapon whose shots hit instantly, instead of launching projectiles.
+ * Every shot is resolved by a single ray query: the ray walks the block columns it crosses, and stops at the
+ * first column whose ground or tree trunk it reaches, and the nearest target whose bounds it crosses before
+ * that takes the damage. No objects take part in collisions, so rapid fire costs a few dozen arithmetic
+ * operations per shot. A short tracer line shows where the shot went.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class HitscanWeapon extends Weapon {
+    private static final Color TRACER_COLOR = new Color(255, 255, 150);
+    private static final float TRACER_WIDTH = 2;
+    private static final float TRACER_TIME = 0.05f;
+
+    private final float damage;
+    private final float range;
+    private final GroundHeightFunction surfaceHeight;
+    private final GroundHeightFunction trunkTop;
+    private final Iterable<? extends Entity> targets;
+    private final GameObject tracer;
+    private final Renderable tracerRenderable;
+    private final float[] interval = new float[2];
+    private float tracerTimeLeft = 0;
+
+    /**
+     * Constructor.
+     * @param fireRate      The number of shots regained per second.
+     * @param burst         The number of shots that can be fired back to back.
+     * @param damage        The damage each shot causes to the Damageable target it hits.
+     * @param range         The distance a shot reaches.
+     * @param surfaceHeight The height of the ground's surface, which stops shots.
+     * @param trunkTop      The height of the top of the tree trunk at a location, which stops shots.
+     * @param targets       The objects shots can hit (those that are Damageable take damage).
+     * @param gameObjects   The collection of all participating game objects.
+     * @param tracerLayer   The layer of the tracer showing the shots (which should not collide with
+     *                      anything).
+     */
+    public HitscanWeapon(float fireRate, int burst, float damage, float range,
+                         GroundHeightFunction surfaceHeight, GroundHeightFunction trunkTop,
+                         Iterable<? extends Entity> targets,
+                         GameObjectCollection gameObjects, int tracerLayer) {
+        super(fireRate, burst);
+        this.damage = damage;
+        this.range = range;
+        this.surfaceHeight = surfaceHeight;
+        this.trunkTop = trunkTop;
+        this.targets = targets;
+        this.tracerRenderable = new RectangleRenderable(TRACER_COLOR);
+        this.tracer = new GameObject(Vector2.ZERO, Vector2.ZERO, null);
+        gameObjects.addGameObject(this.tracer, tracerLayer);
+    }
+
+    /**
+     * Regains shots over time, and hides the tracer of the last shot once its time is up.
+     * @param deltaTime the time since the previous frame.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (this.tracerTimeLeft <= 0)
+            return;
+        this.tracerTimeLeft -= deltaTime;
+        if (this.tracerTimeLeft <= 0)
+            this.tracer.renderer().setRenderable(null);
+    }
+
+    /**
+     * Casts a ray from the given location, damaging the first target it hits before reaching the ground
+     * or a tree trunk.
+     * @param origin        the location the shot starts at.
+     * @param direction     the direction of the shot (a unit vector).
+     * @param ownerCategory the CollisionCategory of the weapon's owner, which the shot does not hit.
+     */
+    @Override
+    protected void shoot(Vector2 origin, Vector2 direction, int ownerCategory) {
+        float distance = castAgainstWorld(origin.x(), origin.y(), direction.x(), direction.y());
+        GameObject hit = null;
+        for (Entity target : this.targets) {
+            if ((target.getCategory() & ownerCategory) != 0)
+                continue;
+            float targetDistance = castAgainstBox(origin, direction, target);
+            if (targetDistance < distance) {
+                distance = targetDistance;
+                hit = target;
+            }
+        }
+        if (hit instanceof Damageable)
+            ((Damageable) hit).takeDamage(this.damage);
+        showTracer(origin, direction, distance);
+    }
+
+    /*
+     * walks the ray through the block columns it crosses, and returns the distance at which it first reaches
+     * a column's ground or trunk (or the weapon's range, if it reaches none).
+     */
+    private float castAgainstWorld(float x, float y, float dx, float dy) {
+        int column = Math.floorDiv((int) Math.floor(x), Block.SIZE);
+        int step = dx > 0 ? 1 : -1;
+        float t = 0;
+        while (t < this.range) {
+            float exitT = this.range;
+            if (dx != 0) {
+                float boundary = (dx > 0 ? column + 1 : column) * Block.SIZE;
+                exitT = Math.min(this.range, (boundary - x) / dx);
+            }
+            float columnX = column * Block.SIZE;
+            float top = Math.min(this.surfaceHeight.groundHeightAt(columnX),
+                                 this.trunkTop.groundHeightAt(columnX));
+            float entryY = y + dy * t;
+            if (entryY >= top)
+                return t;
+            if (y + dy * exitT >= top)
+                return (top - y) / dy; // the ray goes down into the column within it
+            t = exitT;
+            column += step;
+        }
+        return this.range;
+    }
+
+    /*
+     * returns the distance at which the ray enters the given object's bounds, or positive infinity if it
+     * misses them.
+     */
+    private float castAgainstBox(Vector2 origin, Vector2 direction, GameObject target) {
+        Vector2 min = target.getTopLeftCorner();
+        Vector2 dimensions = target.getDimensions();
+        this.interval[0] = 0;
+        this.interval[1] = Float.POSITIVE_INFINITY;
+        if (!clipSlab(origin.x(), direction.x(), min.x(), min.x() + dimensions.x(), this.interval) ||
+                !clipSlab(origin.y(), direction.y(), min.y(), min.y() + dimensions.y(), this.interval))
+            return Float.POSITIVE_INFINITY;
+        return this.interval[0];
+    }
+
+    /*
+     * narrows the ray's [entry, exit] interval to where it is between min and max on one axis, returning
+     * false if that leaves nothing.
+     */
+    private static boolean clipSlab(float origin, float direction, float min, float max, float[] entryExit) {
+        if (direction == 0)
+            return origin >= min && origin <= max;
+        float t1 = (min - origin) / direction;
+        float t2 = (max - origin) / direction;
+        entryExit[0] = Math.max(entryExit[0], Math.min(t1, t2));
+        entryExit[1] = Math.min(entryExit[1], Math.max(t1, t2));
+        return entryExit[0] <= entryExit[1];
+    }
+
+    /*
+     * shows a line along the shot, from its origin to where it stopped.
+     */
+    private void showTracer(Vector2 origin, Vector2 direction, float distance) {
+        this.tracer.setDimensions(new Vector2(distance, TRACER_WIDTH));
+        this.tracer.setCenter(origin.add(direction.mult(distance / 2)));
+        this.tracer.renderer().setRenderableAngle(
+                (float) Math.toDegrees(Math.atan2(direction.y(), direction.x())));
+        this.tracer.renderer().setRenderable(this.tracerRenderable);
+        this.tracerTimeLeft = TRACER_TIME;
+    }
+}
@@ -0,0 +1,32 @@
+package pepse.world;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * An entity that moves, and is shown by the RenderInterpolator between its locations before and after the
+ * last step of the simulation.
+ * Only entities that move carry the interpolator's state, so the blocks and leaves the world is made of stay
+ * as small as they can be.
+ * @author Ohad Klein, Ethan Glick
+ */
+public abstract class MovingEntity extends Entity {
+    // kept by the RenderInterpolator: the location at the start of the last step, and the simulated location
+    float previousX;
+    float previousY;
+    float simulatedX;
+    float simulatedY;
+    long previousStep = -1;
+    boolean interpolated;
+
+    /**
+     * Constructor.
+     * @param topLeftCorner The location of the top-left corner of the created entity.
+     * @param dimensions    The entity's size.
+     * @param renderable    A renderable to render as the entity.
+     * @param category      The entity's CollisionCategory.
+     */
+    protected MovingEntity(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, int category) {
+        super(topLeftCorner, dimensions, renderable, category);
+    }
+}
@@ -2,63 +2,64 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.collisions.GameObjectCollection;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import java.util.function.Supplier;
 
 /**
  * An object representing a projectile, such as a bullet.
+ * Projectiles are created and reused by a ProjectilePool, and return to it once they hit something or
+ * leave the active region.
  * @author Ethan Glick, Ohad Klein
  */
-public class Projectile extends GameObject {
+public class Projectile extends MovingEntity {
     /**
      * Tag for projectile object.
      */
     public static final String PROJECTILE_TAG = "projectile";
 
-    private static final float DELETION_DISTANCE = 1000;
-    private final float damage;
-    private final String ignoreCollisionTag;
-    private final GameObjectCollection gameObjects;
-    private final Supplier<Vector2> avatarLocationSupplier;
+    private final ProjectilePool pool;
+    private final ActiveRegion activeRegion;
+    private final GroundCollider groundCollider;
+    private float damage;
+    long launchNumber; // the order of the projectile's last launch among all of its pool's launches
 
     /**
-     * Constructor.
+     * Constructor. The projectile only enters the game when it is launched.
+     * @param pool the pool the projectile returns to once it is done.
+     * @param activeRegion the region of the world being simulated - the projectile is removed once it
+     *                     leaves it.
+     * @param surfaceHeight the height of the ground's surface - the projectile is removed once it hits it.
+     */
+    Projectile(ProjectilePool pool, ActiveRegion activeRegion, GroundHeightFunction surfaceHeight) {
+        super(Vector2.ZERO, Vector2.ZERO, null, CollisionCategory.PROJECTILE);
+        this.pool = pool;
+        this.activeRegion = activeRegion;
+        this.setTag(PROJECTILE_TAG);
+        // any ground the projectile reaches stops it, however high
+        this.groundCollider = new GroundCollider(this, surfaceHeight, Float.POSITIVE_INFINITY,
+                                                 () -> pool.release(this));
+        this.addComponent(this.groundCollider);
+    }
+
+    /**
+     * Prepares the projectile to be launched.
      * @param center the center coordinates for this object.
      * @param dimensions the dimensions for this object.
      * @param renderable the renderable for this object.
-     * @param gameObjects the GameObjectsCollection to add this object to.
      * @param damage the damage that this object should cause to Damageable objects it impacts.
      * @param velocity the speed and direction for this object.
-     * @param ignoreTag the tag of the object that released this projectile, to ignore collisions with it.
-     * @param avatarLocationSupplier a Supplier that provides the location of the avatar (in order to
-     *                               determine if the projectile has traveled out of view).
+     * @param ownerCategory the CollisionCategory of the object that released this projectile, which it does
+     *                      not collide with.
      */
-    public Projectile(Vector2 center, Vector2 dimensions, Renderable renderable,
-                      GameObjectCollection gameObjects, float damage, Vector2 velocity, String ignoreTag,
-                      Supplier<Vector2> avatarLocationSupplier) {
-        super(Vector2.ZERO, dimensions, renderable);
+    void launch(Vector2 center, Vector2 dimensions, Renderable renderable,
+                float damage, Vector2 velocity, int ownerCategory) {
+        this.setDimensions(dimensions);
         this.setCenter(center);
-        this.ignoreCollisionTag = ignoreTag;
-        this.damage = damage;
-        this.gameObjects = gameObjects;
+        this.renderer().setRenderable(renderable);
         this.setVelocity(velocity);
-        this.avatarLocationSupplier = avatarLocationSupplier;
-        this.setTag(PROJECTILE_TAG);
-    }
-
-    /**
-     * Override the shouldCollideWith.
-     * Prevents projectiles from colliding with one another.
-     * @param other the object that this object might collide with.
-     */
-    @Override
-    public boolean shouldCollideWith(GameObject other) {
-        if (other instanceof Projectile) {
-            return false;
-        }
-        return super.shouldCollideWith(other);
+        this.damage = damage;
+        this.setCollisionMask(CollisionCategory.maskOf(CollisionCategory.PROJECTILE) & ~ownerCategory);
+        this.groundCollider.reset();
     }
 
     /**
@@ -71,11 +72,10 @@ public class Projectile extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        if (!other.getTag().equals(ignoreCollisionTag)) {
-            if (other instanceof Damageable)
-                ((Damageable) other).takeDamage(damage);
-            gameObjects.removeGameObject(this);
-        }
+        // the projectile's mask already excludes its owner and other projectiles
+        if (other instanceof Damageable)
+            ((Damageable) other).takeDamage(damage);
+        pool.release(this);
     }
 
     /**
@@ -87,7 +87,7 @@ public class Projectile extends GameObject {
     public void update(float deltaTime) {
         super.update(deltaTime);
         if (projectileTooFar()) {
-            gameObjects.removeGameObject(this);
+            pool.release(this);
         }
     }
 
@@ -95,7 +95,6 @@ public class Projectile extends GameObject {
     * checks if this object has gone out of view.
     * */
     private boolean projectileTooFar() {
-        return Math.abs(avatarLocationSupplier.get().x() - this.getTopLeftCorner().x())
-                >= DELETION_DISTANCE;
+        return !activeRegion.contains(this);
     }
 }
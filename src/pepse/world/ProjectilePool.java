@@ -0,0 +1,111 @@
+package pepse.world;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+
+/**
+ * Launches projectiles into the game and takes them back once they are done, reusing them for later launches.
+ * The number of projectiles in the game at once is capped - launching beyond the cap removes the oldest
+ * projectile first - so no amount of shooting costs more than a fixed number of objects.
+ * The projectiles in the game are kept in the registry's set of projectiles.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ProjectilePool {
+    private final GameObjectCollection gameObjects;
+    private final int layer;
+    private final int maxLive;
+    private final ActiveRegion activeRegion;
+    private final GroundHeightFunction surfaceHeight;
+    private final ObjectPool<Projectile> pool;
+    private final EntitySet<Projectile> live;
+    private long launches = 0;
+
+    /**
+     * Constructor.
+     * @param gameObjects   The collection of all participating game objects.
+     * @param layer         The layer projectiles are added to.
+     * @param maxLive       The maximal number of projectiles in the game at once.
+     * @param activeRegion  The region of the world being simulated - projectiles are removed once they
+     *                      leave it.
+     * @param surfaceHeight The height of the ground's surface - projectiles are removed once they hit it.
+     * @param registry      The registry the projectiles in the game are kept in.
+     */
+    public ProjectilePool(GameObjectCollection gameObjects, int layer, int maxLive,
+                          ActiveRegion activeRegion, GroundHeightFunction surfaceHeight,
+                          EntityRegistry registry) {
+        this.gameObjects = gameObjects;
+        this.layer = layer;
+        this.maxLive = maxLive;
+        this.activeRegion = activeRegion;
+        this.surfaceHeight = surfaceHeight;
+        this.pool = new ObjectPool<>();
+        this.live = registry.setOf(Projectile.class);
+    }
+
+    /**
+     * Getter.
+     * @return the number of projectiles currently in the game.
+     */
+    public int getLiveCount() {
+        return this.live.size();
+    }
+
+    /**
+     * Launches a projectile, removing the oldest one first if the cap is reached.
+     * @param center        the center coordinates of the projectile.
+     * @param dimensions    the dimensions of the projectile.
+     * @param renderable    the renderable of the projectile (usually shared by all projectiles of a weapon).
+     * @param damage        the damage the projectile causes to Damageable objects it impacts.
+     * @param velocity      the speed and direction of the projectile.
+     * @param ownerCategory the CollisionCategory of the object that released the projectile, which it
+     *                      does not collide with.
+     * @return the launched projectile.
+     */
+    public Projectile launch(Vector2 center, Vector2 dimensions, Renderable renderable,
+                             float damage, Vector2 velocity, int ownerCategory) {
+        if (this.live.size() >= this.maxLive)
+            release(oldestLive());
+        Projectile projectile = this.pool.acquire();
+        if (projectile == null)
+            projectile = new Projectile(this, this.activeRegion, this.surfaceHeight);
+        projectile.launch(center, dimensions, renderable, damage, velocity, ownerCategory);
+        this.gameObjects.addGameObject(projectile, this.layer);
+        projectile.launchNumber = this.launches++;
+        this.live.add(projectile);
+        return projectile;
+    }
+
+    /**
+     * Removes a projectile from the game and returns it to the pool.
+     * Releasing a projectile that is not in the game does nothing.
+     * @param projectile the projectile to release.
+     */
+    public void release(Projectile projectile) {
+        if (!this.live.remove(projectile))
+            return;
+        this.gameObjects.removeGameObject(projectile, this.layer);
+        this.pool.release(projectile);
+    }
+
+    /*
+     * returns the projectile in the game that was launched first.
+     */
+    private Projectile oldestLive() {
+        Projectile oldest = this.live.get(0);
+        for (int i = 1; i < this.live.size(); i++) {
+            if (this.live.get(i).launchNumber < oldest.launchNumber)
+                oldest = this.live.get(i);
+        }
+        return oldest;
+    }
+
+    /**
+     * Makes the projectiles released since the last call available for reuse.
+     * Should be called once every frame.
+     */
+    public void recycle() {
+        this.pool.recycle();
+    }
+}
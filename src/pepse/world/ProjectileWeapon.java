@@ -0,0 +1,49 @@
+package pepse.world;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A weapon that fires projectiles of a single kind, taken from a ProjectilePool.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class ProjectileWeapon extends Weapon {
+    private final ProjectilePool projectilePool;
+    private final Vector2 projectileDimensions;
+    private final Renderable projectileRenderable;
+    private final float damage;
+    private final float speed;
+
+    /**
+     * Constructor.
+     * @param projectilePool       The pool projectiles are launched from.
+     * @param projectileDimensions The dimensions of the weapon's projectiles.
+     * @param projectileRenderable The renderable shared by all of the weapon's projectiles.
+     * @param damage               The damage each projectile causes to Damageable objects it impacts.
+     * @param speed                The speed of the projectiles.
+     * @param fireRate             The number of shots regained per second.
+     * @param burst                The number of shots that can be fired back to back.
+     */
+    public ProjectileWeapon(ProjectilePool projectilePool, Vector2 projectileDimensions,
+                            Renderable projectileRenderable, float damage, float speed, float fireRate,
+                            int burst) {
+        super(fireRate, burst);
+        this.projectilePool = projectilePool;
+        this.projectileDimensions = projectileDimensions;
+        this.projectileRenderable = projectileRenderable;
+        this.damage = damage;
+        this.speed = speed;
+    }
+
+    /**
+     * Launches a projectile from the given location.
+     * @param origin        the center coordinates the projectile starts at.
+     * @param direction     the direction of the projectile (a unit vector).
+     * @param ownerCategory the CollisionCategory of the weapon's owner, which the projectile does not hit.
+     */
+    @Override
+    protected void shoot(Vector2 origin, Vector2 direction, int ownerCategory) {
+        this.projectilePool.launch(origin, this.projectileDimensions, this.projectileRenderable, this.damage,
+                                   direction.mult(this.speed), ownerCategory);
+    }
+}
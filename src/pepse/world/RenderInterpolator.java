@@ -0,0 +1,80 @@
+package pepse.world;
+
+import danogl.util.Vector2;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Smooths the motion of moving entities when the game simulates in fixed steps that do not line up with the
+ * rendered frames.
+ * Before every step, the interpolator remembers where each tracked entity is. Before a frame is rendered,
+ * it moves each entity part of the way from where it was before the last step to where it is now - by the
+ * fraction of a step that passed since then - and once rendering is done, it puts the entities back at
+ * their simulated locations before the simulation continues. So the simulation only ever sees its own
+ * positions, while the screen shows motion that is as smooth as the frame rate allows.
+ * Entities that appeared during the last step are shown where they are.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class RenderInterpolator {
+    private final List<Iterable<? extends MovingEntity>> tracked = new ArrayList<>();
+    private long step = 0;
+
+    /**
+     * Tracks a group of moving entities, such as the set of a type of entities in the EntityRegistry.
+     * Entities that join the group later are tracked as well.
+     * @param entities the entities to track.
+     */
+    public void track(Iterable<? extends MovingEntity> entities) {
+        this.tracked.add(entities);
+    }
+
+    /**
+     * Remembers the locations of the tracked entities. Should be called before every step of the simulation.
+     */
+    public void beginStep() {
+        this.step++;
+        for (Iterable<? extends MovingEntity> entities : this.tracked) {
+            for (MovingEntity entity : entities) {
+                Vector2 topLeftCorner = entity.getTopLeftCorner();
+                entity.previousX = topLeftCorner.x();
+                entity.previousY = topLeftCorner.y();
+                entity.previousStep = this.step;
+            }
+        }
+    }
+
+    /**
+     * Moves the tracked entities to where they should be shown, between their locations before and after the
+     * last step. Should be called after the frame's steps, and followed by restore() before the next step.
+     * @param alpha the fraction of a step that passed since the last step, between 0 and 1.
+     */
+    public void interpolate(float alpha) {
+        for (Iterable<? extends MovingEntity> entities : this.tracked) {
+            for (MovingEntity entity : entities) {
+                if (entity.previousStep != this.step)
+                    continue;
+                Vector2 topLeftCorner = entity.getTopLeftCorner();
+                entity.simulatedX = topLeftCorner.x();
+                entity.simulatedY = topLeftCorner.y();
+                entity.interpolated = true;
+                entity.setTopLeftCorner(new Vector2(
+                        entity.previousX + (entity.simulatedX - entity.previousX) * alpha,
+                        entity.previousY + (entity.simulatedY - entity.previousY) * alpha));
+            }
+        }
+    }
+
+    /**
+     * Puts the entities moved by interpolate() back at their simulated locations.
+     */
+    public void restore() {
+        for (Iterable<? extends MovingEntity> entities : this.tracked) {
+            for (MovingEntity entity : entities) {
+                if (!entity.interpolated)
+                    continue;
+                entity.interpolated = false;
+                entity.setTopLeftCorner(new Vector2(entity.simulatedX, entity.simulatedY));
+            }
+        }
+    }
+}
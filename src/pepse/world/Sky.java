@@ -17,7 +17,10 @@ public class Sky {
      */
     public static final String SKY_TAG = "sky";
 
-    private static final Color SKY_COLOR = Color.decode("#80C6E5");
+    /**
+     * The color of the sky by day.
+     */
+    public static final Color SKY_COLOR = Color.decode("#80C6E5");
 
     /**
      * This function creates a light blue rectangle which is always at the back of the window.
@@ -1,14 +1,15 @@
 package pepse.world;
 
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.Layers;
-import pepse.util.ColorSupplier;
-import pepse.util.PerlinNoise;
+import pepse.util.ColorPalette;
+import pepse.util.GradientNoise1D;
+import pepse.util.RandomStreams;
+import pepse.util.StripedRenderable;
 import java.awt.*;
-import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 /**
  * Responsible for the creation and management of terrain.
@@ -28,30 +29,60 @@ public class Terrain {
     private static final float GROUND_HEIGHT_INITIAL_FACTOR = 2f/3f;
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
     private static final int TERRAIN_DEPTH = 25;
+    private static final int TERRAIN_TOP_DEPTH = 2;
+    private static final int RENDERABLES_PER_COLUMN = TERRAIN_TOP_DEPTH + 1;
+    private static final ColorPalette GROUND_PALETTE = ColorPalette.of(BASE_GROUND_COLOR);
+    private static final Renderable[] BURIED_RENDERABLES = createBuriedRenderables();
 
     private final GameObjectCollection gameObjects;
-    private final PerlinNoise noiseGenerator;
+    private final GradientNoise1D noiseGenerator;
+    private final RandomStreams randomStreams;
     private final float groundHeightAtX0;
     private int firstX;
     private int lastX;
-    private final ArrayList<Block> blocksTop;
-    private final ArrayList<Block> blocks;
+    private volatile float[] columnHeights;
+    private Renderable[] columnRenderables;
+    private int nextColumn;
+    private final EntitySet<Block> blocksTop;
+    private final EntitySet<Block> blocks;
     private final int groundLayerForCollision;
+    private final BlockPools blockPools;
+    private boolean visible = true;
 
     /**
      * Constructor.
      * @param gameObjects - The collection of all participating game objects.
      * @param windowDimensions - The dimensions of the windows.
-     * @param seed - A seed for a random number generator.
+     * @param seed - A seed for the noise generator shaping the terrain.
+     * @param randomStreams - The source of the random colors of the terrain's columns.
+     * @param blockPools - The pools to take blocks from and return them to.
      * */
     public Terrain(GameObjectCollection gameObjects, int groundLayer,
-                   Vector2 windowDimensions, int seed) {
+                   Vector2 windowDimensions, int seed, RandomStreams randomStreams, BlockPools blockPools) {
         this.groundHeightAtX0 = windowDimensions.y() * GROUND_HEIGHT_INITIAL_FACTOR;
         this.gameObjects = gameObjects;
-        this.noiseGenerator = new PerlinNoise(seed);
-        this.blocksTop = new ArrayList<>();
-        this.blocks = new ArrayList<>();
+        this.noiseGenerator = new GradientNoise1D(seed);
+        this.randomStreams = randomStreams;
+        this.blocksTop = new EntitySet<>();
+        this.blocks = new EntitySet<>();
         this.groundLayerForCollision = groundLayer;
+        this.blockPools = blockPools;
+    }
+
+    /*
+     * Precomputes the shared renderables of buried columns, each a different stack of ground colors.
+     */
+    private static Renderable[] createBuriedRenderables() {
+        Renderable[] renderables = new Renderable[ColorPalette.VARIANTS];
+        SplittableRandom random = new SplittableRandom(BASE_GROUND_COLOR.getRGB());
+        for (int i = 0; i < renderables.length; i++) {
+            Color[] colors = new Color[TERRAIN_DEPTH - TERRAIN_TOP_DEPTH];
+            for (int j = 0; j < colors.length; j++) {
+                colors[j] = GROUND_PALETTE.randomColor(random);
+            }
+            renderables[i] = new StripedRenderable(colors);
+        }
+        return renderables;
     }
 
     /**
@@ -76,26 +107,135 @@ public class Terrain {
      * @param maxX - The upper bound of the given range (will be rounded to a multiple of Block.SIZE).
      * */
     public void createInRange(int minX, int maxX) {
+        setRange(minX, maxX);
+        generate();
+        createColumns(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sets the range of x-values the terrain covers, without generating it.
+     * @param minX - The lower bound of the given range (will be rounded to a multiple of Block.SIZE).
+     * @param maxX - The upper bound of the given range (will be rounded to a multiple of Block.SIZE).
+     */
+    public void setRange(int minX, int maxX) {
         this.firstX = (minX/Block.SIZE) * Block.SIZE;
         this.lastX = (maxX/Block.SIZE) * Block.SIZE + Block.SIZE;
-        for (int curX = this.firstX; curX < this.lastX; curX += Block.SIZE) {
-            int firstY = ((int)(groundHeightAt(curX)/Block.SIZE)) * Block.SIZE;
-            int lastY = firstY + Block.SIZE * TERRAIN_DEPTH;
-            for (int curY = firstY; curY < lastY; curY += Block.SIZE) {
-                Renderable renderable =
-                        new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR));
-                Block block = new Block(new Vector2(curX, curY), renderable);
-                if (curY <= firstY + Block.SIZE) {
-                    // consider as TERRAIN_TOP for collision calculations
-                    this.gameObjects.addGameObject(block, groundLayerForCollision);
-                    this.blocksTop.add(block);
-                    block.setTag(TERRAIN_TOP_TAG);
-                } else {
-                    this.gameObjects.addGameObject(block, Layers.TERRAIN.value);
-                    this.blocks.add(block);
-                    block.setTag(TERRAIN_TAG);
-                }
+    }
+
+    /**
+     * Generates the heights and colors of the terrain's columns.
+     * Does not touch the game objects collection, so it may run on a background thread.
+     * Each column's colors come from its own random stream, so they do not depend on the terrain's range.
+     */
+    public void generate() {
+        int columns = (this.lastX - this.firstX) / Block.SIZE;
+        int firstColumn = this.firstX / Block.SIZE;
+        Renderable[] renderables = new Renderable[columns * RENDERABLES_PER_COLUMN];
+        for (int column = 0; column < columns; column++) {
+            SplittableRandom random =
+                    this.randomStreams.stream(RandomStreams.Domain.TERRAIN, firstColumn + column);
+            int first = column * RENDERABLES_PER_COLUMN;
+            for (int i = 0; i < TERRAIN_TOP_DEPTH; i++) {
+                renderables[first + i] = GROUND_PALETTE.randomRenderable(random);
             }
+            renderables[first + TERRAIN_TOP_DEPTH] =
+                    BURIED_RENDERABLES[random.nextInt(BURIED_RENDERABLES.length)];
+        }
+        this.columnRenderables = renderables;
+        this.columnHeights = computeColumnHeights(columns);
+    }
+
+    /*
+     * Computes the ground height of every column in the terrain's range once, including the column at
+     * lastX so heights can be interpolated up to the terrain's right edge.
+     */
+    private float[] computeColumnHeights(int columns) {
+        float[] heights = new float[columns + 1];
+        this.noiseGenerator.fill(this.firstX, Block.SIZE, heights);
+        for (int column = 0; column < heights.length; column++) {
+            heights[column] += groundHeightAtX0;
+        }
+        return heights;
+    }
+
+    /**
+     * Returns the number of game objects the generated terrain is made of.
+     * @return the number of blocks in the terrain's columns.
+     */
+    public int getObjectCount() {
+        return this.columnRenderables.length;
+    }
+
+    /**
+     * Creates the game objects of the next generated columns, until the given number of objects is reached
+     * (checked between columns).
+     * @param maxObjects the number of objects to create.
+     * @return the number of objects that were created.
+     */
+    public int createColumns(int maxObjects) {
+        int created = 0;
+        while (!isCreated() && created < maxObjects) {
+            createColumn(this.nextColumn++);
+            created += TERRAIN_TOP_DEPTH + 1;
+        }
+        return created;
+    }
+
+    /**
+     * Returns whether all of the terrain's columns have been created.
+     * @return true if all columns were created, false otherwise.
+     */
+    public boolean isCreated() {
+        return this.nextColumn * RENDERABLES_PER_COLUMN == this.columnRenderables.length;
+    }
+
+    /*
+     * Creates a single column of terrain: the top blocks are kept separate for collision calculations,
+     * while the buried blocks below them are merged into one tall block.
+     */
+    private void createColumn(int column) {
+        int x = this.firstX + column * Block.SIZE;
+        int firstY = ((int)(this.columnHeights[column]/Block.SIZE)) * Block.SIZE;
+        int first = column * RENDERABLES_PER_COLUMN;
+        for (int i = 0; i < TERRAIN_TOP_DEPTH; i++) {
+            Vector2 topLeftCorner = new Vector2(x, firstY + i * Block.SIZE);
+            Renderable renderable = this.columnRenderables[first + i];
+            Block block = this.blockPools.getBlocks().acquire();
+            if (block == null)
+                block = new Block(topLeftCorner, renderable);
+            else
+                block.reset(topLeftCorner, renderable);
+            // consider as TERRAIN_TOP for collision calculations
+            this.gameObjects.addGameObject(block, groundLayerForCollision);
+            this.blocksTop.add(block);
+            block.setTag(TERRAIN_TOP_TAG);
+            block.setVisible(this.visible);
+        }
+
+        Vector2 buriedTopLeftCorner = new Vector2(x, firstY + TERRAIN_TOP_DEPTH * Block.SIZE);
+        Renderable buriedRenderable = this.columnRenderables[first + TERRAIN_TOP_DEPTH];
+        Block buried = this.blockPools.getColumns().acquire();
+        if (buried == null)
+            buried = new Block(buriedTopLeftCorner, TERRAIN_DEPTH - TERRAIN_TOP_DEPTH, buriedRenderable);
+        else
+            buried.reset(buriedTopLeftCorner, buriedRenderable);
+        this.gameObjects.addGameObject(buried, Layers.TERRAIN.value);
+        this.blocks.add(buried);
+        buried.setTag(TERRAIN_TAG);
+        buried.setVisible(this.visible);
+    }
+
+    /**
+     * Shows or hides all the terrain's blocks, including those created later.
+     * @param visible whether the terrain should be rendered.
+     */
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        for (Block block : this.blocksTop) {
+            block.setVisible(visible);
+        }
+        for (Block block : this.blocks) {
+            block.setVisible(visible);
         }
     }
 
@@ -103,20 +243,74 @@ public class Terrain {
      * Destroys the terrain objects.
      */
     public void destroy() {
-        for (Block block : blocksTop) {
+        destroy(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Destroys up to the given number of terrain objects.
+     * @param maxObjects the number of objects to destroy.
+     * @return the number of objects that were destroyed.
+     */
+    public int destroy(int maxObjects) {
+        int destroyed = 0;
+        while (!this.blocksTop.isEmpty() && destroyed < maxObjects) {
+            Block block = this.blocksTop.removeLast();
             this.gameObjects.removeGameObject(block, groundLayerForCollision);
+            this.blockPools.getBlocks().release(block);
+            destroyed++;
         }
-        for (Block block : blocks) {
+        while (!this.blocks.isEmpty() && destroyed < maxObjects) {
+            Block block = this.blocks.removeLast();
             this.gameObjects.removeGameObject(block, Layers.TERRAIN.value);
+            this.blockPools.getColumns().release(block);
+            destroyed++;
         }
+        return destroyed;
+    }
+
+    /**
+     * Returns whether all of the terrain's created objects have been destroyed.
+     * @return true if no terrain objects remain in the game, false otherwise.
+     */
+    public boolean isDestroyed() {
+        return this.blocksTop.isEmpty() && this.blocks.isEmpty();
     }
 
     /**
      * This method returns the ground height at a given location.
+     * Once the terrain is generated, heights inside its range are read from the precomputed column heights
+     * (interpolating between columns), otherwise the noise is computed directly.
      * @param x - A number.
      * @return The ground height at the given location.
      * */
     public float groundHeightAt(float x) {
+        float[] heights = this.columnHeights;
+        if (heights == null || x < this.firstX || x > this.lastX)
+            return noiseHeightAt(x);
+
+        float position = (x - this.firstX) / Block.SIZE;
+        int column = Math.min((int) position, heights.length - 1);
+        float fraction = position - column;
+        if (fraction == 0)
+            return heights[column];
+        return heights[column] + fraction * (heights[column + 1] - heights[column]);
+    }
+
+    /**
+     * This method returns the height of the terrain's surface at a given location - the top of the
+     * column of blocks containing it.
+     * @param x - A number.
+     * @return The height of the top of the terrain's blocks at the given location.
+     */
+    public float surfaceHeightAt(float x) {
+        int columnX = Math.floorDiv((int) Math.floor(x), Block.SIZE) * Block.SIZE;
+        return ((int)(groundHeightAt(columnX)/Block.SIZE)) * Block.SIZE;
+    }
+
+    /*
+     * computes the ground height at a given location directly from the noise generator.
+     */
+    private float noiseHeightAt(float x) {
         return noiseGenerator.noise(x) + groundHeightAtX0;
     }
 }
@@ -0,0 +1,58 @@
+package pepse.world;
+
+import danogl.util.Vector2;
+
+/**
+ * A weapon that fires at a limited rate.
+ * A weapon holds up to a burst of shots, which can be fired back to back, and regains shots at its fire rate,
+ * so holding the trigger fires at the fire rate no matter how many frames pass.
+ * Subclasses decide what a shot does.
+ * @author Ohad Klein, Ethan Glick
+ */
+public abstract class Weapon {
+    private final float fireRate;
+    private final int burst;
+    private float shots;
+
+    /**
+     * Constructor.
+     * @param fireRate The number of shots regained per second.
+     * @param burst    The number of shots that can be fired back to back.
+     */
+    protected Weapon(float fireRate, int burst) {
+        this.fireRate = fireRate;
+        this.burst = burst;
+        this.shots = burst;
+    }
+
+    /**
+     * Regains shots over time. Should be called every frame by the weapon's owner.
+     * @param deltaTime the time since the previous frame.
+     */
+    public void update(float deltaTime) {
+        this.shots = Math.min(this.burst, this.shots + deltaTime * this.fireRate);
+    }
+
+    /**
+     * Fires a shot, if the weapon has a shot left.
+     * @param origin        the location the shot starts at.
+     * @param direction     the direction of the shot (a unit vector).
+     * @param ownerCategory the CollisionCategory of the weapon's owner, which the shot does not hit.
+     * @return true if a shot was fired, false otherwise.
+     */
+    public boolean fire(Vector2 origin, Vector2 direction, int ownerCategory) {
+        if (this.shots < 1)
+            return false;
+        this.shots--;
+        shoot(origin, direction, ownerCategory);
+        return true;
+    }
+
+    /**
+     * Performs a single shot.
+     * @param origin        the location the shot starts at.
+     * @param direction     the direction of the shot (a unit vector).
+     * @param ownerCategory the CollisionCategory of the weapon's owner, which the shot does not hit.
+     */
+    protected abstract void shoot(Vector2 origin, Vector2 direction, int ownerCategory);
+}
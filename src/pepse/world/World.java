@@ -3,9 +3,9 @@ package pepse.world;
 import danogl.collisions.GameObjectCollection;
 import danogl.util.Vector2;
 import pepse.Layers;
+import pepse.util.RandomStreams;
 import pepse.world.trees.Tree;
-import java.util.Random;
-import java.util.function.Function;
+import java.util.SplittableRandom;
 
 /**
  * This class holds a Terrain and a Tree instances, which are generated by a given seed.
@@ -17,25 +17,38 @@ public class World {
     private final int end;
     private final GameObjectCollection gameObjects;
     private final Vector2 windowDimensions;
+    private final BlockPools blockPools;
+    private final RandomStreams randomStreams;
+    private final GroundHeightFunction landingHeight;
     private Terrain terrain;
     private Tree tree;
+    private boolean active = true;
 
     /**
-     * Constructor.
-     * @param seed             A seed for a random number generator.
+     * Constructor. The world's range is set, but it is only generated and built through
+     * a ChunkPipeline (or by calling generate() and build() directly).
+     * @param seed             A seed for the noise generator shaping the terrain.
      * @param start            The start location of the world(on the x-axis).
      * @param end              The end location of the world(on the x-axis).
      * @param gameObjects      The collection of all participating game objects.
      * @param windowDimensions The dimensions of the windows.
+     * @param randomStreams    The source of the world's random decisions (colors, trees, leaves).
+     * @param blockPools       The pools to take blocks from and return them to.
+     * @param landingHeight    The height of the surface of the whole world, for falling leaves to land on -
+     *                         leaves may drift past the world's edges, onto its neighbours.
      */
     public World(int seed, int start, int end,
                  GameObjectCollection gameObjects,
-                 Vector2 windowDimensions) {
+                 Vector2 windowDimensions, RandomStreams randomStreams, BlockPools blockPools,
+                 GroundHeightFunction landingHeight) {
         this.seed = seed;
         this.start = start;
         this.end = end;
         this.gameObjects = gameObjects;
         this.windowDimensions = windowDimensions;
+        this.blockPools = blockPools;
+        this.randomStreams = randomStreams;
+        this.landingHeight = landingHeight;
         InitializeWorld();
     }
 
@@ -46,6 +59,15 @@ public class World {
         return this.terrain;
     }
 
+    /**
+     * Returns the height of the top of the tree trunk at a given location.
+     * @param x the location on the x-axis.
+     * @return the y coordinate of the trunk's top, or positive infinity if no tree grows there.
+     */
+    public float trunkTopAt(float x) {
+        return this.tree.trunkTopAt(x);
+    }
+
     /**
      * Getter.
      * @return first x position of the world as determined from the terrain.
@@ -62,6 +84,64 @@ public class World {
         return this.terrain.getLastX();
     }
 
+    /**
+     * Getter.
+     * @return the number of block columns the world spans.
+     */
+    public int getColumnCount() {
+        return (getLastX() - getFirstX()) / Block.SIZE;
+    }
+
+    /**
+     * Returns the number of game objects the generated world is made of.
+     * @return the number of objects the world's terrain and trees are made of.
+     */
+    public int getObjectCount() {
+        return this.terrain.getObjectCount() + this.tree.getObjectCount();
+    }
+
+    /**
+     * Generates the world's terrain and trees data, without creating any game objects.
+     * Does not touch the game objects collection, so it may run on a background thread.
+     */
+    public void generate() {
+        this.terrain.generate();
+        this.tree.generateInRange(this.start, this.end);
+    }
+
+    /**
+     * Creates the game objects of the generated world, until the given number of objects is reached.
+     * Terrain is created before trees, so trees are never planted in mid-air.
+     * @param maxObjects the number of objects to create.
+     * @return the number of objects that were created.
+     */
+    public int build(int maxObjects) {
+        int created = this.terrain.createColumns(maxObjects);
+        if (this.terrain.isCreated() && created < maxObjects)
+            created += this.tree.createTrees(maxObjects - created);
+        return created;
+    }
+
+    /**
+     * Returns whether all of the world's game objects have been created.
+     * @return true if the world is fully built, false otherwise.
+     */
+    public boolean isBuilt() {
+        return this.terrain.isCreated() && this.tree.isCreated();
+    }
+
+    /**
+     * Suspends or resumes the world: an inactive world is hidden and its leaves stop moving.
+     * @param active whether the world should be active.
+     */
+    public void setActive(boolean active) {
+        if (active == this.active)
+            return;
+        this.active = active;
+        this.terrain.setVisible(active);
+        this.tree.setActive(active);
+    }
+
     /**
      * Destroys the world's terrain and trees.
      */
@@ -70,16 +150,33 @@ public class World {
         this.tree.destroy();
     }
 
+    /**
+     * Destroys up to the given number of the world's game objects.
+     * @param maxObjects the number of objects to destroy.
+     * @return the number of objects that were destroyed.
+     */
+    public int destroy(int maxObjects) {
+        int destroyed = this.terrain.destroy(maxObjects);
+        return destroyed + this.tree.destroy(maxObjects - destroyed);
+    }
+
+    /**
+     * Returns whether all of the world's created game objects have been destroyed.
+     * @return true if no objects of this world remain in the game, false otherwise.
+     */
+    public boolean isDestroyed() {
+        return this.terrain.isDestroyed() && this.tree.isDestroyed();
+    }
+
     /*
-     * Initializes the world.
+     * Initializes the world, leaving its generation for later.
      */
     private void InitializeWorld() {
         this.terrain = new Terrain(this.gameObjects, Layers.TERRAIN_TOP.value,
-                                    windowDimensions, this.seed);
-        this.terrain.createInRange(this.start, this.end);
-        Function<Integer, Float> groundHeightFunction = this.terrain::groundHeightAt;
-        this.tree = new Tree(this.gameObjects, groundHeightFunction, this.seed);
-        this.tree.createInRange(this.start, this.end);
+                                    windowDimensions, this.seed, this.randomStreams, this.blockPools);
+        this.terrain.setRange(this.start, this.end);
+        this.tree = new Tree(this.gameObjects, this.terrain::groundHeightAt, this.landingHeight,
+                             this.randomStreams, this.blockPools);
     }
 
     /**
@@ -87,11 +184,11 @@ public class World {
      * Used in World class and classes which World depends on.
      * @param a      first float.
      * @param b      second float.
-     * @param random the Random object to use.
+     * @param random the random stream to use.
      * @return  random float.
      */
-    public static float randomBetween(float a, float b, Random random) {
+    public static float randomBetween(float a, float b, SplittableRandom random) {
         float diff = b - a;
-        return a + random.nextFloat() * diff;
+        return a + (float) random.nextDouble() * diff;
     }
 }
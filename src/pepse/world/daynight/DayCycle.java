@@ -0,0 +1,194 @@
+package pepse.world.daynight;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.world.Sky;
+import java.awt.*;
+
+/**
+ * The clock of the days and nights, driving the sun, its halo, the night and the sky together.
+ * The cycle keeps a single time, and every update looks up where the day is in tables computed once when it
+ * is created: the sun's path (shared by the halo), the night's opaqueness and the tint of the sky. So no
+ * trigonometry is done and nothing is allocated while the game runs, the four objects never drift apart,
+ * and the whole cycle can be paused or sped up in one place.
+ * The tables follow the transitions the objects used to run on their own: the sun goes around its path once
+ * a day with a cubic ease, and the night darkens with a cubic ease until midnight and brightens back until
+ * noon. The sky turns towards the color of dusk while the night is half dark, at dawn and at dusk.
+ * @author Ohad Klein, Ethan Glick
+ */
+public class DayCycle extends GameObject {
+    private static final int SUN_SAMPLES = 4096; // more than the steps of a 30 second day
+    private static final int NIGHT_SAMPLES = 512;
+    private static final int SKY_SAMPLES = 128;
+    private static final float FULL_CIRCLE_VALUE = 360;
+    private static final Color DUSK_COLOR = Color.decode("#F0A070");
+    private static final float DUSK_STRENGTH = 0.6f;
+
+    private final float cycleLength;
+    private final Vector2[] sunPath = new Vector2[SUN_SAMPLES];
+    private final float[] nightOpacity = new float[NIGHT_SAMPLES + 1];
+    private final Renderable[] skyTints = new Renderable[SKY_SAMPLES];
+    private GameObject sun;
+    private GameObject halo;
+    private GameObject night;
+    private GameObject sky;
+    private double time = 0;
+    private float timeScale = 1;
+    private boolean paused = false;
+    private int sunSample = -1;
+    private int skySample = -1;
+
+    /*
+     * private constructor.
+     */
+    private DayCycle(float cycleLength) {
+        super(Vector2.ZERO, Vector2.ZERO, null);
+        this.cycleLength = cycleLength;
+    }
+
+    /**
+     * Creates the cycle, computes its tables, and puts the objects it drives where they are at noon of the
+     * first day.
+     * @param gameObjects      The collection of all participating game objects.
+     * @param layer            The layer to add the cycle to (it is never drawn, and does not collide).
+     * @param windowDimensions The dimensions of the window.
+     * @param cycleLength      The length of a day, in seconds.
+     * @param sun              The sun, created by Sun.
+     * @param halo             The sun's halo, created by SunHalo.
+     * @param night            The night, created by Night.
+     * @param sky              The sky, created by Sky.
+     * @return the created cycle.
+     */
+    public static DayCycle create(GameObjectCollection gameObjects, int layer, Vector2 windowDimensions,
+                                  float cycleLength, GameObject sun, GameObject halo, GameObject night,
+                                  GameObject sky) {
+        DayCycle cycle = new DayCycle(cycleLength);
+        cycle.sun = sun;
+        cycle.halo = halo;
+        cycle.night = night;
+        cycle.sky = sky;
+        cycle.computeTables(windowDimensions);
+        cycle.apply();
+        gameObjects.addGameObject(cycle, layer);
+        return cycle;
+    }
+
+    /**
+     * Override of the update function.
+     * Advances the cycle's time, unless it is paused, and moves the objects it drives to where they are at
+     * that time.
+     * @param deltaTime the time since the previous update.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (paused)
+            return;
+        time += deltaTime * timeScale;
+        apply();
+    }
+
+    /**
+     * Stops or resumes the cycle. While it is paused, the sun, the night and the sky stay as they are, and
+     * no days pass.
+     * @param paused true to stop the cycle, false to resume it.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Sets how fast the days pass, relative to game time.
+     * @param timeScale the number of seconds of the day that pass in every second of game time.
+     * @throws IllegalArgumentException if the time scale is negative.
+     */
+    public void setTimeScale(float timeScale) {
+        if (timeScale < 0)
+            throw new IllegalArgumentException("time scale must not be negative: " + timeScale);
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Getter.
+     * @return the number of whole days that passed since the cycle was created.
+     */
+    public int getDayCount() {
+        return (int) (time / cycleLength);
+    }
+
+    /*
+     * samples the sun's path, the night's opaqueness and the sky's tint over a single day.
+     */
+    private void computeTables(Vector2 windowDimensions) {
+        for (int i = 0; i < SUN_SAMPLES; i++) {
+            float angle = ease((float) i / SUN_SAMPLES) * FULL_CIRCLE_VALUE;
+            sunPath[i] = Sun.centerAt(angle, windowDimensions);
+        }
+        // the last sample is noon again, so the opaqueness can be interpolated up to the end of the day
+        for (int i = 0; i <= NIGHT_SAMPLES; i++) {
+            nightOpacity[i] = nightOpacityAt((float) i / NIGHT_SAMPLES);
+        }
+        for (int i = 0; i < SKY_SAMPLES; i++) {
+            float halfDark = nightOpacityAt((i + 0.5f) / SKY_SAMPLES) / Night.MIDNIGHT_OPACITY;
+            float twilight = 1 - Math.abs(2 * halfDark - 1);
+            skyTints[i] = new RectangleRenderable(blend(Sky.SKY_COLOR, DUSK_COLOR,
+                                                        DUSK_STRENGTH * twilight * twilight));
+        }
+    }
+
+    /*
+     * moves the sun and its halo, darkens the night and tints the sky for the current time. The sun and
+     * the sky only change when the time reaches their next sample.
+     */
+    private void apply() {
+        float phase = (float) ((time % cycleLength) / cycleLength);
+
+        int sunIndex = Math.min((int) (phase * SUN_SAMPLES), SUN_SAMPLES - 1);
+        if (sunIndex != sunSample) {
+            sunSample = sunIndex;
+            sun.setCenter(sunPath[sunIndex]);
+            halo.setCenter(sunPath[sunIndex]);
+        }
+
+        float nightPosition = phase * NIGHT_SAMPLES;
+        int nightIndex = Math.min((int) nightPosition, NIGHT_SAMPLES - 1);
+        float fraction = nightPosition - nightIndex;
+        float opacity = nightOpacity[nightIndex];
+        night.renderer().setOpaqueness(opacity + (nightOpacity[nightIndex + 1] - opacity) * fraction);
+
+        int skyIndex = Math.min((int) (phase * SKY_SAMPLES), SKY_SAMPLES - 1);
+        if (skyIndex != skySample) {
+            skySample = skyIndex;
+            sky.renderer().setRenderable(skyTints[skyIndex]);
+        }
+    }
+
+    /*
+     * returns the night's opaqueness at a point of the day (0 and 1 are noon): darkening until midnight,
+     * and brightening back until noon.
+     */
+    private static float nightOpacityAt(float phase) {
+        float halfDay = phase < 0.5f ? 2 * phase : 2 - 2 * phase;
+        return ease(halfDay) * Night.MIDNIGHT_OPACITY;
+    }
+
+    /*
+     * eases a fraction in and out, the way danogl's cubic interpolator does.
+     */
+    private static float ease(float t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    /*
+     * returns the color a given fraction of the way from one color to another.
+     */
+    private static Color blend(Color from, Color to, float fraction) {
+        return new Color(
+                Math.round(from.getRed() + (to.getRed() - from.getRed()) * fraction),
+                Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * fraction),
+                Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * fraction));
+    }
+}
@@ -20,10 +20,11 @@ public class SunHalo {
     private static final float SIZE_MULTIPLIER = 3;
 
     /**
-     * This function creates a halo around a given object that represents the sun.
+     * This function creates a halo around a given object that represents the sun. The halo does not
+     * follow the sun on its own - a DayCycle moves both of them together.
      * @param gameObjects - The collection of all participating game objects.
      * @param layer - The number of the layer to which the created halo should be added.
-     * @param sun - A game object representing the sun (it will be followed by the created game object).
+     * @param sun - A game object representing the sun (the created game object is centered on it).
      * @param color - The color of the halo.
      * @return A new game object representing the sun's halo.
      * */
@@ -33,8 +34,8 @@ public class SunHalo {
                 new OvalRenderable(color));
         halo.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         halo.setTag(HALO_TAG);
+        halo.setCenter(sun.getCenter());
         gameObjects.addGameObject(halo, layer);
-        halo.addComponent(t->halo.setCenter(sun.getCenter()));
         return halo;
     }
 }
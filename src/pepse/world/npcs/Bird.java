@@ -1,94 +1,134 @@
 package pepse.world.npcs;
 
-import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.components.Transition;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.Layers;
+import pepse.util.TimerWheel;
+import pepse.world.ActiveRegion;
+import pepse.world.CollisionCategory;
 import pepse.world.Damageable;
-import pepse.world.Projectile;
+import pepse.world.MovingEntity;
+import pepse.world.ProjectilePool;
+import pepse.world.ProjectileWeapon;
+import pepse.world.Weapon;
 import java.awt.*;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * BONUS! Class for a single bird.
  * @author Ohad Klein, Ethan Glick
  */
-public class Bird extends GameObject implements Damageable {
+public class Bird extends MovingEntity implements Damageable {
     /**
      * Tag for bird object.
      */
     public static final String BIRD_TAG = "bird";
 
-    private static final float FLY_SPEED = -100f;
-    private static final float FLY_VOLATILITY = 100f;
-    private static final float TRANSITION_TIME = 0.5f;
-    private static final int DROPPING_PROBABILITY_BOUND = 500;
+    // as often on average as a 1 in 500 chance on every frame, at 60 frames per second
+    private static final float MEAN_TIME_BETWEEN_DROPPINGS = 500 / 60f;
     private static final Color BROWN = new Color(150, 75, 0);
     private static final Vector2 DROPPING_SIZE = new Vector2(7,7);
     private static final float DROPPING_DAMAGE = 15;
     private static final float DROPPING_SPEED_Y = 300;
-    private final GameObjectCollection gameObjects;
-    private final int directionMultiplier;
-    private final Random random;
+    private static final float DROPPING_FIRE_RATE = 1;
+    private static final int DROPPING_BURST = 1;
+    private static final Renderable DROPPING_RENDERABLE = new OvalRenderable(BROWN);
+    private final SplittableRandom random;
+    private final Weapon droppings;
+    private final ActiveRegion activeRegion;
+    private final TimerWheel scheduler;
+    private final TimerWheel.Timer droppingTimer;
+    private Renderable hiddenRenderable;
+    private boolean active = true;
     private float health = 10;
+    int flockSlot = -1; // the bird's slot in the flock steering it, or -1 if none does
 
     /**
      * Constructor.
      * @param topLeftCorner         The location of the top-left corner of the created bird.
      * @param dimensions            The bird's size.
      * @param renderable            A renderable to render as the bird.
-     * @param directionMultiplier   1 if bird is going left, -1 if going right
+     * @param projectilePool        The pool the bird's droppings are launched from.
+     * @param random                The bird's own random stream, deciding when it releases droppings.
+     * @param activeRegion          The region of the world being simulated.
+     * @param scheduler             The game's scheduler, which times the bird's droppings.
      */
     public Bird(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                GameObjectCollection gameObjects, int directionMultiplier, int seed) {
-        super(topLeftCorner, dimensions, renderable);
-        this.gameObjects = gameObjects;
-        this.random = new Random(seed);
-        this.directionMultiplier = directionMultiplier;
+                ProjectilePool projectilePool, SplittableRandom random, ActiveRegion activeRegion,
+                TimerWheel scheduler) {
+        super(topLeftCorner, dimensions, renderable, CollisionCategory.BIRD);
+        this.droppings = new ProjectileWeapon(projectilePool, DROPPING_SIZE, DROPPING_RENDERABLE,
+                                              DROPPING_DAMAGE, DROPPING_SPEED_Y, DROPPING_FIRE_RATE,
+                                              DROPPING_BURST);
+        this.activeRegion = activeRegion;
+        this.random = random;
         this.setTag(BIRD_TAG);
         physics().preventIntersectionsFromDirection(Vector2.UP);
-        fly();
+        this.scheduler = scheduler;
+        this.droppingTimer = new TimerWheel.Timer(this::onDroppingTime);
+        scheduleDroppings();
     }
 
     /*
-     * Makes the bird fly.
+     * draws the time until the bird's next droppings (the times between droppings are exponentially
+     * distributed, like the number of frames between successes of a per-frame roll), and schedules them.
      */
-    private void fly() {
-        float flightDirection = FLY_SPEED * this.directionMultiplier;
-        new Transition<>(
-                this, //the game object being changed
-                this.transform()::setVelocity,  //the method to call
-                new Vector2(flightDirection, FLY_VOLATILITY),    //initial transition value
-                new Vector2(flightDirection, -FLY_VOLATILITY),   //final transition value
-                Transition.CUBIC_INTERPOLATOR_VECTOR,  //use a cubic interpolator
-                TRANSITION_TIME,   //transition over transition time
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                null);
+    private void scheduleDroppings() {
+        float delay = (float) (-Math.log(1 - random.nextDouble()) * MEAN_TIME_BETWEEN_DROPPINGS);
+        scheduler.schedule(droppingTimer, delay);
+    }
+
+    /*
+     * Releases droppings if the bird is active, and schedules the next ones.
+     */
+    private void onDroppingTime() {
+        if (active)
+            releaseDroppings();
+        scheduleDroppings();
+    }
+
+    /**
+     * Stops the bird from releasing droppings, once it is killed or leaves the game.
+     */
+    public void stopDroppings() {
+        scheduler.cancel(droppingTimer);
     }
 
     /*
      * Makes the bird release droppings.
      */
     private void releaseDroppings() {
-        Projectile dropping = new Projectile(
-                this.getCenter(), DROPPING_SIZE, new OvalRenderable(BROWN), gameObjects,
-                DROPPING_DAMAGE, new Vector2(0, DROPPING_SPEED_Y), BIRD_TAG, this::getTopLeftCorner);
-        gameObjects.addGameObject(dropping, Layers.OBJECTS.value);
+        droppings.fire(this.getCenter(), Vector2.DOWN, CollisionCategory.BIRD);
+    }
+
+    /**
+     * Suspends or resumes the bird. A suspended bird is hidden, and flies on without releasing droppings,
+     * until it is resumed.
+     * @param active whether the bird should be active.
+     */
+    public void setActive(boolean active) {
+        if (active == this.active)
+            return;
+        this.active = active;
+        if (active) {
+            renderer().setRenderable(hiddenRenderable);
+            hiddenRenderable = null;
+        } else {
+            hiddenRenderable = renderer().getRenderable();
+            renderer().setRenderable(null);
+        }
     }
 
     /**
      * Override of the update function.
-     * Used to make bird release droppings at random intervals.
+     * Used to suspend the bird out of the active region.
      * @param deltaTime the time since the previous frame.
      */
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
-        if (random.nextInt(DROPPING_PROBABILITY_BOUND) == 0)
-            releaseDroppings();
+        droppings.update(deltaTime);
+        setActive(activeRegion.contains(this));
     }
 
     /**
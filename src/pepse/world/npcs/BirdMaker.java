@@ -2,15 +2,19 @@ package pepse.world.npcs;
 
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.components.ScheduledTask;
 import danogl.components.Transition;
 import danogl.gui.ImageReader;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.Layers;
-import java.util.LinkedList;
-import java.util.Random;
+import pepse.util.RandomStreams;
+import pepse.util.TimerWheel;
+import pepse.world.ActiveRegion;
+import pepse.world.EntityRegistry;
+import pepse.world.EntitySet;
+import pepse.world.ProjectilePool;
+import java.util.SplittableRandom;
 import java.util.function.Supplier;
 import static pepse.world.World.randomBetween;
 
@@ -27,6 +31,7 @@ public class BirdMaker extends GameObject {
     private static final float MAX_HEIGHT = 100f;
     private static final float DEFAULT_DISTANCE = 1000f;
     private static final float SIZE = 48f;
+    private static final float FLY_SPEED = -100f;
     private static final double TIME_BETWEEN_CLIPS = 0.3f;
     private static final int FLOCK_COLS = 4;
     private static final float FLOCK_PROBABILITY = 0.3f;
@@ -46,11 +51,17 @@ public class BirdMaker extends GameObject {
     private GameObjectCollection gameObjects;
     private Supplier<Vector2> avatarLocationSupplier;
     private Runnable scoreIncrementer;
-    private LinkedList<Bird> birds;
+    private ProjectilePool projectilePool;
+    private ActiveRegion activeRegion;
+    private EntitySet<Bird> birds;
+    private Flock flock;
     private AnimationRenderable birdRenderableFlying;
     private Renderable birdRenderableDead;
-    private Random random;
-    private int seed;
+    private RandomStreams randomStreams;
+    private SplittableRandom random;
+    private TimerWheel scheduler;
+    private TimerWheel.Timer flockTimer;
+    private int birdCount;
 
     /**
      * Constructor.
@@ -70,20 +81,33 @@ public class BirdMaker extends GameObject {
      * @param imageReader            Used for reading images from disk or from within a jar.
      * @param gameObjects            The collection of all participating game objects.
      * @param avatarLocationSupplier A function to supply the avatar's current location.
+     * @param randomStreams          The source of the randomness of the birds and their appearances.
+     * @param projectilePool         The pool the birds' droppings are launched from.
+     * @param activeRegion           The region of the world being simulated (birds outside it are suspended).
+     * @param registry               The registry the birds in the game are kept in.
+     * @param scheduler              The game's scheduler, which times the birds' appearances.
      */
-    public static GameObject create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+    public static BirdMaker create(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
                      ImageReader imageReader, GameObjectCollection gameObjects,
-                     Supplier<Vector2> avatarLocationSupplier, Runnable scoreIncrementer, int seed) {
+                     Supplier<Vector2> avatarLocationSupplier, Runnable scoreIncrementer,
+                     RandomStreams randomStreams,
+                     ProjectilePool projectilePool, ActiveRegion activeRegion, EntityRegistry registry,
+                     TimerWheel scheduler) {
         BirdMaker birdMaker = new BirdMaker(topLeftCorner, dimensions, renderable);
-        birdMaker.seed = seed;
-        birdMaker.random = new Random(seed);
+        birdMaker.randomStreams = randomStreams;
+        birdMaker.random = randomStreams.stream(RandomStreams.Domain.FLOCKS, 0);
         birdMaker.gameObjects = gameObjects;
         birdMaker.avatarLocationSupplier = avatarLocationSupplier;
-        birdMaker.birds = new LinkedList<>();
+        birdMaker.birds = registry.setOf(Bird.class);
+        birdMaker.flock = new Flock();
         birdMaker.birdRenderableFlying =
                 new AnimationRenderable(FLYING_IMAGES, imageReader,true, TIME_BETWEEN_CLIPS);
         birdMaker.scoreIncrementer = scoreIncrementer;
+        birdMaker.projectilePool = projectilePool;
+        birdMaker.activeRegion = activeRegion;
         birdMaker.birdRenderableDead = imageReader.readImage(DEAD_IMAGE, true);
+        birdMaker.scheduler = scheduler;
+        birdMaker.flockTimer = new TimerWheel.Timer(birdMaker::createBirds);
         birdMaker.createBirds();
         gameObjects.addGameObject(birdMaker);
         return birdMaker;
@@ -115,9 +139,12 @@ public class BirdMaker extends GameObject {
      */
     private void createSingleBird(Vector2 topLeftCorner, int directionMultiplier) {
         Bird bird = new Bird(topLeftCorner.add(Vector2.RIGHT.multX(100)), Vector2.ONES.mult(SIZE),
-                birdRenderableFlying, gameObjects, directionMultiplier, seed++);
+                birdRenderableFlying, projectilePool,
+                randomStreams.stream(RandomStreams.Domain.BIRDS, birdCount++), activeRegion, scheduler);
         bird.renderer().setIsFlippedHorizontally(directionMultiplier == MULTIPLIER_LEFT);
         this.birds.add(bird);
+        this.flock.add(bird, FLY_SPEED * directionMultiplier,
+                       (float) (random.nextDouble() * 2 * Math.PI));
         this.gameObjects.addGameObject(bird, Layers.OBJECTS.value);
     }
 
@@ -136,14 +163,14 @@ public class BirdMaker extends GameObject {
 
         Vector2 topLeftCorner = new Vector2(xPos, yPos);
         // choosing between single bird and flock:
-        if (random.nextFloat() <= FLOCK_PROBABILITY)
+        if (random.nextDouble() <= FLOCK_PROBABILITY)
             createFlock(topLeftCorner, directionMultiplier);
         else
             createSingleBird(topLeftCorner, directionMultiplier);
 
         // scheduling next event:
         float timeForNextBird = randomBetween(MIN_TIME_FOR_NEW_BIRD, MAX_TIME_FOR_NEW_BIRD, random);
-        new ScheduledTask(this, timeForNextBird, false, this::createBirds);
+        scheduler.schedule(flockTimer, timeForNextBird);
     }
 
     /*
@@ -155,15 +182,31 @@ public class BirdMaker extends GameObject {
     }
 
     /**
-     * Overriding the update method to check for bird removal.
+     * Overriding the update method to steer the flock and check for bird removal.
      * @param deltaTime the time since the previous frame.
      */
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
-        // check if it needs to remove bird:
-        birds.removeIf(b -> birdKilled(b) ||
-                (birdTooFar(b) && gameObjects.removeGameObject(b, Layers.OBJECTS.value)));
+        // check if it needs to remove birds (from the last one, as the last takes a removed bird's place):
+        for (int i = birds.size() - 1; i >= 0; i--) {
+            removeBird(birds.get(i));
+        }
+        flock.update(deltaTime);
+    }
+
+    /*
+     * Checks if a given bird should be removed from the game (it was killed or it is too far), and if so
+     * stops tracking and steering it.
+     */
+    private void removeBird(Bird bird) {
+        boolean removed = birdKilled(bird) ||
+                (birdTooFar(bird) && gameObjects.removeGameObject(bird, Layers.OBJECTS.value));
+        if (removed) {
+            bird.stopDroppings();
+            birds.remove(bird);
+            flock.remove(bird);
+        }
     }
 
     /*
@@ -173,6 +216,7 @@ public class BirdMaker extends GameObject {
         if (bird.getHealth() > 0)
             return false;
 
+        bird.setActive(true);
         bird.setVelocity(Vector2.ZERO);
         bird.renderer().setRenderable(birdRenderableDead);
         scoreIncrementer.run();
@@ -0,0 +1,268 @@
+package pepse.world.npcs;
+
+import danogl.util.Vector2;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * BONUS! Steers all of the birds in the game as a single boids flock.
+ * Every bird is pulled towards its neighbours (cohesion), matches their velocity (alignment) and keeps its
+ * distance from them (separation), while cruising in its own direction at its own altitude. The flock keeps
+ * the birds' state in primitive arrays, indexed by the birds' slots, and finds neighbours through a spatial
+ * hash of cells as wide as the neighbourhood, so every bird looks at a few nearby birds instead of all of
+ * them. When there are many birds, the steering is split between the threads of the common ForkJoin pool.
+ * The birds themselves only move by the velocities the flock gives them.
+ * @author Ohad Klein, Ethan Glick
+ */
+class Flock {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int PARALLEL_THRESHOLD = 512;
+    private static final int SEQUENTIAL_BLOCK = 128;
+    private static final float NEIGHBOR_RADIUS = 150;
+    private static final float SEPARATION_RADIUS = 60;
+    private static final float COHESION_WEIGHT = 0.5f;
+    private static final float ALIGNMENT_WEIGHT = 1f;
+    private static final float SEPARATION_WEIGHT = 4f;
+    private static final float CRUISE_WEIGHT = 1f;
+    private static final float ALTITUDE_WEIGHT = 0.5f;
+    private static final float MAX_SPEED = 200;
+    private static final float FLAP_VOLATILITY = 100;
+    private static final float FLAP_FREQUENCY = (float) (2 * Math.PI); // one flap up and down per second
+    private static final int HASH_X = 73856093;
+    private static final int HASH_Y = 19349663;
+
+    private Bird[] birds = new Bird[INITIAL_CAPACITY];
+    private float[] positionsX = new float[INITIAL_CAPACITY];
+    private float[] positionsY = new float[INITIAL_CAPACITY];
+    private float[] velocitiesX = new float[INITIAL_CAPACITY];
+    private float[] velocitiesY = new float[INITIAL_CAPACITY];
+    private float[] steeredX = new float[INITIAL_CAPACITY];
+    private float[] steeredY = new float[INITIAL_CAPACITY];
+    private float[] cruiseVelocities = new float[INITIAL_CAPACITY];
+    private float[] altitudes = new float[INITIAL_CAPACITY];
+    private float[] flapPhases = new float[INITIAL_CAPACITY];
+    private int[] cellsX = new int[INITIAL_CAPACITY];
+    private int[] cellsY = new int[INITIAL_CAPACITY];
+    private int[] nextInCell = new int[INITIAL_CAPACITY];
+    private int[] cellHeads = new int[2 * INITIAL_CAPACITY];
+    private int size = 0;
+    private float deltaTime;
+
+    /**
+     * Adds a bird to the flock.
+     * @param bird           the bird to add.
+     * @param cruiseVelocity the horizontal velocity the bird tends to when it is alone.
+     * @param flapPhase      the point of the bird's flapping cycle it starts at, in radians.
+     */
+    void add(Bird bird, float cruiseVelocity, float flapPhase) {
+        if (this.size == this.birds.length)
+            grow();
+        int slot = this.size++;
+        Vector2 center = bird.getCenter();
+        this.birds[slot] = bird;
+        this.positionsX[slot] = center.x();
+        this.positionsY[slot] = center.y();
+        this.velocitiesX[slot] = cruiseVelocity;
+        this.velocitiesY[slot] = 0;
+        this.cruiseVelocities[slot] = cruiseVelocity;
+        this.altitudes[slot] = center.y();
+        this.flapPhases[slot] = flapPhase;
+        bird.flockSlot = slot;
+    }
+
+    /**
+     * Removes a bird from the flock, leaving its velocity as it is. Removing a bird that is not in the flock
+     * does nothing.
+     * @param bird the bird to remove.
+     */
+    void remove(Bird bird) {
+        int slot = bird.flockSlot;
+        if (slot < 0)
+            return;
+        bird.flockSlot = -1;
+        int last = --this.size;
+        if (slot != last)
+            moveSlot(last, slot);
+        this.birds[last] = null;
+    }
+
+    /**
+     * Steers every bird of the flock. Should be called once every frame.
+     * @param deltaTime the time since the previous frame.
+     */
+    void update(float deltaTime) {
+        if (this.size == 0)
+            return;
+        this.deltaTime = deltaTime;
+        for (int i = 0; i < this.size; i++) {
+            Vector2 center = this.birds[i].getCenter();
+            this.positionsX[i] = center.x();
+            this.positionsY[i] = center.y();
+        }
+        buildSpatialHash();
+        if (this.size >= PARALLEL_THRESHOLD)
+            ForkJoinPool.commonPool().invoke(new SteeringTask(0, this.size));
+        else
+            steer(0, this.size);
+
+        for (int i = 0; i < this.size; i++) {
+            this.velocitiesX[i] = this.steeredX[i];
+            this.velocitiesY[i] = this.steeredY[i];
+            this.flapPhases[i] = (this.flapPhases[i] + FLAP_FREQUENCY * deltaTime) % (float) (2 * Math.PI);
+            this.birds[i].transform().setVelocityX(this.velocitiesX[i]);
+            this.birds[i].transform().setVelocityY(
+                    this.velocitiesY[i] + FLAP_VOLATILITY * (float) Math.cos(this.flapPhases[i]));
+        }
+    }
+
+    /*
+     * files every bird under its cell, in chains of slots starting at the cell's hash bucket.
+     */
+    private void buildSpatialHash() {
+        int mask = this.cellHeads.length - 1;
+        Arrays.fill(this.cellHeads, -1);
+        for (int i = 0; i < this.size; i++) {
+            int cellX = (int) Math.floor(this.positionsX[i] / NEIGHBOR_RADIUS);
+            int cellY = (int) Math.floor(this.positionsY[i] / NEIGHBOR_RADIUS);
+            int bucket = bucketOf(cellX, cellY, mask);
+            this.cellsX[i] = cellX;
+            this.cellsY[i] = cellY;
+            this.nextInCell[i] = this.cellHeads[bucket];
+            this.cellHeads[bucket] = i;
+        }
+    }
+
+    /*
+     * computes the new velocities of the birds in the given range of slots. Only reads the state of other
+     * birds, so ranges can be steered in parallel.
+     */
+    private void steer(int from, int to) {
+        int mask = this.cellHeads.length - 1;
+        for (int i = from; i < to; i++) {
+            float x = this.positionsX[i];
+            float y = this.positionsY[i];
+            float sumX = 0, sumY = 0, sumVelocityX = 0, sumVelocityY = 0, separationX = 0, separationY = 0;
+            int neighbors = 0;
+            for (int cellX = this.cellsX[i] - 1; cellX <= this.cellsX[i] + 1; cellX++) {
+                for (int cellY = this.cellsY[i] - 1; cellY <= this.cellsY[i] + 1; cellY++) {
+                    int j = this.cellHeads[bucketOf(cellX, cellY, mask)];
+                    for (; j >= 0; j = this.nextInCell[j]) {
+                        // buckets are shared by distant cells, so only birds of this very cell count
+                        if (j == i || this.cellsX[j] != cellX || this.cellsY[j] != cellY)
+                            continue;
+                        float dx = this.positionsX[j] - x;
+                        float dy = this.positionsY[j] - y;
+                        float distanceSquared = dx * dx + dy * dy;
+                        if (distanceSquared > NEIGHBOR_RADIUS * NEIGHBOR_RADIUS)
+                            continue;
+                        if (distanceSquared < SEPARATION_RADIUS * SEPARATION_RADIUS && distanceSquared > 0) {
+                            float distance = (float) Math.sqrt(distanceSquared);
+                            float push = (SEPARATION_RADIUS - distance) / distance;
+                            separationX -= dx * push;
+                            separationY -= dy * push;
+                        }
+                        // birds only flock with birds heading the same way
+                        if (this.cruiseVelocities[j] * this.cruiseVelocities[i] <= 0)
+                            continue;
+                        sumX += dx;
+                        sumY += dy;
+                        sumVelocityX += this.velocitiesX[j];
+                        sumVelocityY += this.velocitiesY[j];
+                        neighbors++;
+                    }
+                }
+            }
+
+            float velocityX = this.velocitiesX[i];
+            float velocityY = this.velocitiesY[i];
+            float accelerationX = SEPARATION_WEIGHT * separationX +
+                    CRUISE_WEIGHT * (this.cruiseVelocities[i] - velocityX);
+            float accelerationY = SEPARATION_WEIGHT * separationY +
+                    ALTITUDE_WEIGHT * (this.altitudes[i] - y);
+            if (neighbors > 0) {
+                accelerationX += COHESION_WEIGHT * sumX / neighbors +
+                        ALIGNMENT_WEIGHT * (sumVelocityX / neighbors - velocityX);
+                accelerationY += COHESION_WEIGHT * sumY / neighbors +
+                        ALIGNMENT_WEIGHT * (sumVelocityY / neighbors - velocityY);
+            }
+            velocityX += accelerationX * this.deltaTime;
+            velocityY += accelerationY * this.deltaTime;
+            float speedSquared = velocityX * velocityX + velocityY * velocityY;
+            if (speedSquared > MAX_SPEED * MAX_SPEED) {
+                float scale = MAX_SPEED / (float) Math.sqrt(speedSquared);
+                velocityX *= scale;
+                velocityY *= scale;
+            }
+            this.steeredX[i] = velocityX;
+            this.steeredY[i] = velocityY;
+        }
+    }
+
+    /*
+     * returns the hash bucket of a cell.
+     */
+    private static int bucketOf(int cellX, int cellY, int mask) {
+        return (cellX * HASH_X ^ cellY * HASH_Y) & mask;
+    }
+
+    /*
+     * moves the bird in one slot to another slot.
+     */
+    private void moveSlot(int from, int to) {
+        this.birds[to] = this.birds[from];
+        this.positionsX[to] = this.positionsX[from];
+        this.positionsY[to] = this.positionsY[from];
+        this.velocitiesX[to] = this.velocitiesX[from];
+        this.velocitiesY[to] = this.velocitiesY[from];
+        this.cruiseVelocities[to] = this.cruiseVelocities[from];
+        this.altitudes[to] = this.altitudes[from];
+        this.flapPhases[to] = this.flapPhases[from];
+        this.birds[to].flockSlot = to;
+    }
+
+    /*
+     * doubles the number of birds the arrays can hold.
+     */
+    private void grow() {
+        int capacity = 2 * this.birds.length;
+        this.birds = Arrays.copyOf(this.birds, capacity);
+        this.positionsX = Arrays.copyOf(this.positionsX, capacity);
+        this.positionsY = Arrays.copyOf(this.positionsY, capacity);
+        this.velocitiesX = Arrays.copyOf(this.velocitiesX, capacity);
+        this.velocitiesY = Arrays.copyOf(this.velocitiesY, capacity);
+        this.steeredX = new float[capacity];
+        this.steeredY = new float[capacity];
+        this.cruiseVelocities = Arrays.copyOf(this.cruiseVelocities, capacity);
+        this.altitudes = Arrays.copyOf(this.altitudes, capacity);
+        this.flapPhases = Arrays.copyOf(this.flapPhases, capacity);
+        this.cellsX = new int[capacity];
+        this.cellsY = new int[capacity];
+        this.nextInCell = new int[capacity];
+        this.cellHeads = new int[2 * capacity];
+    }
+
+    /*
+     * steers a range of slots, splitting it between threads while it is larger than a block.
+     */
+    private class SteeringTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        SteeringTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= SEQUENTIAL_BLOCK) {
+                steer(this.from, this.to);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new SteeringTask(this.from, middle), new SteeringTask(middle, this.to));
+        }
+    }
+}
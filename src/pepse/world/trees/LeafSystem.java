@@ -0,0 +1,354 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.GroundHeightFunction;
+import java.util.SplittableRandom;
+import static pepse.world.World.randomBetween;
+
+/**
+ * Simulates the life-cycle of all the leaves of a chunk's trees at once.
+ * The state of every leaf is kept in arrays and advanced by a single loop per frame, instead of
+ * by transitions and scheduled tasks attached to each leaf - the leaves themselves only render it.
+ * A leaf sways while it is alive, then falls while fading out, stops on the ground, stays dead for a while,
+ * and finally fades back in where it grew.
+ * @author Ohad Klein, Ethan Glick
+ */
+class LeafSystem extends GameObject {
+    private static final float ANGLE_DELTA = 10f;
+    private static final float ANGLE_CYCLE = 7f;
+    private static final float DIMENSIONS_DELTA = 0.9f;
+    private static final float DIMENSIONS_CYCLE = 0.7f;
+    private static final int DIMENSIONS_STEPS = 32;
+    private static final Vector2[] DIMENSIONS = createDimensions();
+    private static final float MAX_MOVEMENT_DELAY = 1f;
+    private static final float MIN_LIFE_TIME = 5f;
+    private static final float MAX_LIFE_TIME = 60f;
+    private static final float MIN_DEATH_TIME = 5f;
+    private static final float MAX_DEATH_TIME = 20f;
+    private static final float FADEOUT_TIME = 10f;
+    private static final float FADE_IN_TIME = 3f;
+    private static final float FALL_SPEED = 50f;
+    private static final float FALL_VOLATILITY = 50f;
+    private static final float FALL_CYCLE = 0.7f;
+    private static final float FALL_STOP_TIME = 0.3f;
+
+    // the stages of a leaf's life-cycle
+    private static final byte ALIVE = 0;
+    private static final byte FALLING = 1;
+    private static final byte LANDED = 2;
+    private static final byte DEAD = 3;
+    private static final byte REBORN = 4;
+
+    private final GroundHeightFunction surfaceHeight;
+    private final SplittableRandom random;
+    private final Leaf[] leaves;
+    private final Vector2[] homes;
+    private final byte[] stages;
+    private final float[] stageTimes;
+    private final float[] stageDurations;
+    private final float[] swayTimes;
+    private final int[] dimensionSteps;
+    private final float[] landingVelocities;
+    private int count;
+    private boolean active = true;
+    private float suspendedTime;
+
+    /**
+     * Constructor.
+     * @param capacity      The number of leaves the system can hold.
+     * @param surfaceHeight The height of the surface of the whole world, for falling leaves to land on.
+     * @param random        The random stream deciding the leaves' timing.
+     */
+    LeafSystem(int capacity, GroundHeightFunction surfaceHeight, SplittableRandom random) {
+        super(Vector2.ZERO, Vector2.ZERO, null);
+        this.surfaceHeight = surfaceHeight;
+        this.random = random;
+        this.leaves = new Leaf[capacity];
+        this.homes = new Vector2[capacity];
+        this.stages = new byte[capacity];
+        this.stageTimes = new float[capacity];
+        this.stageDurations = new float[capacity];
+        this.swayTimes = new float[capacity];
+        this.dimensionSteps = new int[capacity];
+        this.landingVelocities = new float[capacity];
+    }
+
+    /*
+     * Precomputes the dimensions a swaying leaf goes through, so they are not allocated every frame.
+     */
+    private static Vector2[] createDimensions() {
+        Vector2 base = Vector2.ONES.mult(Block.SIZE);
+        Vector2 first = base.multY(DIMENSIONS_DELTA);
+        Vector2 last = base.multX(DIMENSIONS_DELTA);
+        Vector2[] dimensions = new Vector2[DIMENSIONS_STEPS + 1];
+        for (int step = 0; step <= DIMENSIONS_STEPS; step++) {
+            dimensions[step] = first.add(last.subtract(first).mult((float) step / DIMENSIONS_STEPS));
+        }
+        return dimensions;
+    }
+
+    /**
+     * Adds a leaf to the system, starting its life-cycle where it currently is.
+     * @param leaf the leaf to add.
+     */
+    void add(Leaf leaf) {
+        int i = this.count++;
+        this.leaves[i] = leaf;
+        this.homes[i] = leaf.getTopLeftCorner();
+        // movement is started at random, to make each leaf move differently
+        this.swayTimes[i] = -randomBetween(0, MAX_MOVEMENT_DELAY, this.random);
+        this.dimensionSteps[i] = 0;
+        leaf.setDimensions(DIMENSIONS[0]);
+        leaf.renderer().setRenderableAngle(0);
+        startStage(i, ALIVE, randomBetween(MIN_LIFE_TIME, MAX_LIFE_TIME, this.random));
+    }
+
+    /**
+     * Suspends or resumes the system. While suspended, the leaves stay where they are and their time is
+     * accumulated, to be caught up with once the system is resumed: every leaf then goes through the stages
+     * it would have gone through meanwhile, and leaves that fell while suspended are settled on the ground.
+     * @param active whether the system should be active.
+     */
+    void setActive(boolean active) {
+        if (active == this.active)
+            return;
+        this.active = active;
+        if (active)
+            return;
+        for (int i = 0; i < this.count; i++) {
+            if (this.stages[i] == FALLING || this.stages[i] == LANDED)
+                this.leaves[i].setVelocity(Vector2.ZERO);
+        }
+    }
+
+    /**
+     * Advances the life-cycle of every leaf in the system, unless it is suspended.
+     * @param deltaTime the time since the previous frame.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (!this.active) {
+            this.suspendedTime += deltaTime;
+            return;
+        }
+        if (this.suspendedTime > 0) {
+            for (int i = 0; i < this.count; i++) {
+                catchUp(i, this.suspendedTime);
+            }
+            this.suspendedTime = 0;
+        }
+        for (int i = 0; i < this.count; i++) {
+            this.stageTimes[i] += deltaTime;
+            switch (this.stages[i]) {
+                case ALIVE:
+                    sway(i, deltaTime);
+                    if (this.stageTimes[i] >= this.stageDurations[i])
+                        fall(i);
+                    break;
+                case FALLING:
+                    sway(i, deltaTime);
+                    updateFall(i);
+                    fadeOut(i);
+                    break;
+                case LANDED:
+                    updateStop(i);
+                    fadeOut(i);
+                    break;
+                case DEAD:
+                    if (this.stageTimes[i] >= this.stageDurations[i])
+                        reincarnate(i);
+                    break;
+                case REBORN:
+                    sway(i, deltaTime);
+                    fadeIn(i);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /*
+     * advances a leaf through the given time at once, carrying the time left at the end of every stage into
+     * the next one. A leaf does not fall while it catches up - a falling leaf is settled on the ground.
+     */
+    private void catchUp(int i, float time) {
+        sway(i, time);
+        while (true) {
+            if (this.stages[i] == FALLING) {
+                settle(i);
+                continue;
+            }
+            // a landed leaf's stage lasts until it has faded out
+            float end = this.stages[i] == LANDED ? FADEOUT_TIME : this.stageDurations[i];
+            if (this.stageTimes[i] + time < end) {
+                this.stageTimes[i] += time;
+                break;
+            }
+            time -= Math.max(0, end - this.stageTimes[i]);
+            switch (this.stages[i]) {
+                case ALIVE:
+                    fall(i);
+                    break;
+                case LANDED:
+                    death(i);
+                    break;
+                case DEAD:
+                    reincarnate(i);
+                    break;
+                default: // REBORN
+                    startStage(i, ALIVE, randomBetween(MIN_LIFE_TIME, MAX_LIFE_TIME, this.random));
+                    break;
+            }
+        }
+
+        switch (this.stages[i]) {
+            case ALIVE:
+                this.leaves[i].renderer().setOpaqueness(1);
+                break;
+            case LANDED:
+                fadeOut(i);
+                break;
+            case DEAD:
+                this.leaves[i].renderer().setOpaqueness(0);
+                break;
+            default: // REBORN
+                fadeIn(i);
+                break;
+        }
+    }
+
+    /*
+     * puts a falling leaf on the ground beneath it, stopped, without changing how far it has faded.
+     */
+    private void settle(int i) {
+        Leaf leaf = this.leaves[i];
+        Vector2 topLeftCorner = leaf.getTopLeftCorner();
+        Vector2 dimensions = leaf.getDimensions();
+        float ground = this.surfaceHeight.groundHeightAt(topLeftCorner.x() + dimensions.x() / 2);
+        if (ground != Float.POSITIVE_INFINITY && topLeftCorner.y() + dimensions.y() < ground)
+            leaf.setTopLeftCorner(new Vector2(topLeftCorner.x(), ground - dimensions.y()));
+        leaf.setVelocity(Vector2.ZERO);
+        this.stages[i] = LANDED;
+        this.landingVelocities[i] = 0;
+        this.stageDurations[i] = this.stageTimes[i];
+    }
+
+    /*
+     * moves the leaf to the given stage of its life-cycle, which lasts the given duration.
+     */
+    private void startStage(int i, byte stage, float duration) {
+        this.stages[i] = stage;
+        this.stageTimes[i] = 0;
+        this.stageDurations[i] = duration;
+    }
+
+    /*
+     * swings the leaf's angle and dimensions back and forth, once its movement has started.
+     */
+    private void sway(int i, float deltaTime) {
+        float swayTime = this.swayTimes[i] += deltaTime;
+        if (swayTime < 0)
+            return;
+        Leaf leaf = this.leaves[i];
+        float angleProgress = cubic(backAndForth(swayTime, ANGLE_CYCLE));
+        leaf.renderer().setRenderableAngle(-ANGLE_DELTA + 2 * ANGLE_DELTA * angleProgress);
+        int step = Math.round(cubic(backAndForth(swayTime, DIMENSIONS_CYCLE)) * DIMENSIONS_STEPS);
+        if (step != this.dimensionSteps[i]) {
+            this.dimensionSteps[i] = step;
+            leaf.setDimensions(DIMENSIONS[step]);
+        }
+    }
+
+    /*
+     * The second phase of the leaf's life-cycle - makes the leaf fall while fading out.
+     */
+    private void fall(int i) {
+        startStage(i, FALLING, FADEOUT_TIME);
+    }
+
+    /*
+     * drifts a falling leaf from side to side, and stops it once it reaches the ground.
+     */
+    private void updateFall(int i) {
+        Leaf leaf = this.leaves[i];
+        float drift = cubic(backAndForth(this.stageTimes[i], FALL_CYCLE));
+        float velocityX = FALL_VOLATILITY - 2 * FALL_VOLATILITY * drift;
+        leaf.transform().setVelocityX(velocityX);
+        leaf.transform().setVelocityY(FALL_SPEED);
+
+        Vector2 topLeftCorner = leaf.getTopLeftCorner();
+        Vector2 dimensions = leaf.getDimensions();
+        float ground = this.surfaceHeight.groundHeightAt(topLeftCorner.x() + dimensions.x() / 2);
+        if (topLeftCorner.y() + dimensions.y() >= ground) {
+            // the fade out goes on, so the stage keeps its time
+            this.stages[i] = LANDED;
+            this.landingVelocities[i] = velocityX;
+            this.stageDurations[i] = this.stageTimes[i] + FALL_STOP_TIME;
+            leaf.transform().setVelocityY(0);
+        }
+    }
+
+    /*
+     * slows a leaf that has landed down to a stop.
+     */
+    private void updateStop(int i) {
+        float remaining = Math.max(0, this.stageDurations[i] - this.stageTimes[i]);
+        float velocityX = this.landingVelocities[i] * (1 - cubic(1 - remaining / FALL_STOP_TIME));
+        this.leaves[i].transform().setVelocityX(velocityX);
+    }
+
+    /*
+     * fades a falling or landed leaf out, and lets it die once it is gone.
+     */
+    private void fadeOut(int i) {
+        float opaqueness = Math.max(0, 1 - this.stageTimes[i] / FADEOUT_TIME);
+        this.leaves[i].renderer().setOpaqueness(opaqueness);
+        if (opaqueness == 0)
+            death(i);
+    }
+
+    /*
+     * The third phase of the leaf's life-cycle - randomly determining time of death.
+     */
+    private void death(int i) {
+        this.leaves[i].setVelocity(Vector2.ZERO);
+        startStage(i, DEAD, randomBetween(MIN_DEATH_TIME, MAX_DEATH_TIME, this.random));
+    }
+
+    /*
+     * The final phase of the leaf's life-cycle - returns the leaf to where it grew, to fade back in.
+     */
+    private void reincarnate(int i) {
+        this.leaves[i].setTopLeftCorner(this.homes[i]);
+        startStage(i, REBORN, FADE_IN_TIME);
+    }
+
+    /*
+     * fades a reborn leaf in, and starts its life-cycle again once it is fully visible.
+     */
+    private void fadeIn(int i) {
+        float opaqueness = Math.min(1, this.stageTimes[i] / FADE_IN_TIME);
+        this.leaves[i].renderer().setOpaqueness(opaqueness);
+        if (opaqueness == 1)
+            startStage(i, ALIVE, randomBetween(MIN_LIFE_TIME, MAX_LIFE_TIME, this.random));
+    }
+
+    /*
+     * returns the progress (between 0 and 1) of a transition going back and forth over the given cycle.
+     */
+    private static float backAndForth(float time, float cycle) {
+        float progress = (time % (2 * cycle)) / cycle;
+        return progress <= 1 ? progress : 2 - progress;
+    }
+
+    /*
+     * eases the given progress in and out, like the engine's cubic interpolators.
+     */
+    private static float cubic(float t) {
+        return t * t * (3 - 2 * t);
+    }
+}
@@ -1,16 +1,19 @@
 package pepse.world.trees;
 
 import danogl.collisions.GameObjectCollection;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.Layers;
-import pepse.util.ColorSupplier;
+import pepse.util.ColorPalette;
+import pepse.util.RandomStreams;
 import pepse.world.Block;
+import pepse.world.BlockPools;
+import pepse.world.CollisionCategory;
+import pepse.world.EntitySet;
+import pepse.world.GroundHeightFunction;
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Random;
-import java.util.function.Function;
+import java.util.SplittableRandom;
 
 /**
  * Responsible for the creation and management of trees.
@@ -26,26 +29,45 @@ public class Tree {
     private static final int MIN_HEIGHT = 7;
     private static final int MAX_HEIGHT_DIFFERENCE = 7;
     private static final float PLANT_PROBABILITY = 0.1f;
+    private static final ColorPalette TRUNK_PALETTE = ColorPalette.of(TRUNK_COLOR);
+    private static final ColorPalette LEAF_PALETTE = ColorPalette.of(Leaf.COLOR);
 
-    private final Function<Integer, Float> groundHeightFunction;
-    private final Random random;
+    private final GroundHeightFunction groundHeightFunction;
+    private final GroundHeightFunction surfaceHeightFunction;
+    private final RandomStreams randomStreams;
     private final GameObjectCollection gameObjects;
-    private final ArrayList<Block> trunk;
-    private final ArrayList<Block> leaves;
+    private final ArrayList<PlannedTree> plannedTrees;
+    private int nextTree;
+    private final EntitySet<Block> trunk;
+    private final EntitySet<Leaf> leaves;
+    private int firstColumn;
+    private volatile PlannedTree[] treeAtColumn;
+    private int leafCount;
+    private int objectCount;
+    private LeafSystem leafSystem;
+    private boolean active = true;
+    private final BlockPools blockPools;
 
     /**
      * Constructor.
      * @param gameObjects          The collection of all participating game objects.
      * @param groundHeightFunction The function to determine where to start planting a tree.
-     * @param seed                 A seed for a random number generator.
+     * @param surfaceHeightFunction The height of the surface of the whole world (not only of the trees'
+     *                              own terrain), for falling leaves to land on.
+     * @param randomStreams        The source of the random decisions of where and how trees grow.
+     * @param blockPools           The pools to take blocks from and return them to.
      */
     public Tree(GameObjectCollection gameObjects,
-                Function<Integer, Float> groundHeightFunction, int seed) {
+                GroundHeightFunction groundHeightFunction, GroundHeightFunction surfaceHeightFunction,
+                RandomStreams randomStreams, BlockPools blockPools) {
         this.gameObjects = gameObjects;
         this.groundHeightFunction = groundHeightFunction;
-        this.random = new Random(seed);
-        this.trunk = new ArrayList<>();
-        this.leaves = new ArrayList<>();
+        this.surfaceHeightFunction = surfaceHeightFunction;
+        this.randomStreams = randomStreams;
+        this.plannedTrees = new ArrayList<>();
+        this.trunk = new EntitySet<>();
+        this.leaves = new EntitySet<>();
+        this.blockPools = blockPools;
     }
 
 
@@ -55,71 +77,225 @@ public class Tree {
      * @param  maxX - The upper bound of the given range (will be rounded to a multiple of Block.SIZE).
      * */
     public void createInRange(int minX, int maxX) {
+        generateInRange(minX, maxX);
+        createTrees(Integer.MAX_VALUE);
+    }
+
+    /**
+     * This method decides where trees grow in a given range of x-values, and their heights and colors.
+     * Does not touch the game objects collection, so it may run on a background thread.
+     * Each column decides on its tree with its own random stream, so trees do not depend on the range.
+     * @param minX - The lower bound of the given range (will be rounded to a multiple of Block.SIZE).
+     * @param  maxX - The upper bound of the given range (will be rounded to a multiple of Block.SIZE).
+     * */
+    public void generateInRange(int minX, int maxX) {
         int firstX = (minX/ Block.SIZE) * Block.SIZE;
         int lastX = (maxX/Block.SIZE) * Block.SIZE + Block.SIZE;
+        this.firstColumn = firstX / Block.SIZE;
+        PlannedTree[] trees = new PlannedTree[(lastX - firstX) / Block.SIZE];
         for (int curX = firstX; curX < lastX; curX += Block.SIZE) {
-            if (shouldPlantTree()) {
-                plantTree(curX);
+            SplittableRandom random =
+                    this.randomStreams.stream(RandomStreams.Domain.TREES, curX / Block.SIZE);
+            if (shouldPlantTree(random)) {
+                trees[curX / Block.SIZE - this.firstColumn] = planTree(curX, random);
             }
         }
+        this.treeAtColumn = trees;
     }
 
     /*
      * determines if a tree should be planted or not.
      */
-    private boolean shouldPlantTree() {
-        return random.nextFloat() <= PLANT_PROBABILITY;
+    private boolean shouldPlantTree(SplittableRandom random) {
+        return random.nextDouble() <= PLANT_PROBABILITY;
     }
 
     /*
-     * plants a tree in the given x location.
+     * plans a tree in the given x location.
+     */
+    private PlannedTree planTree(int x, SplittableRandom random) {
+        PlannedTree tree = new PlannedTree();
+        tree.x = x;
+        tree.height = MIN_HEIGHT + random.nextInt(MAX_HEIGHT_DIFFERENCE);
+        tree.groundY = ((int)(this.groundHeightFunction.groundHeightAt(x)/Block.SIZE)) * Block.SIZE;
+        tree.trunkRenderables = new Renderable[tree.height];
+        for (int i = 0; i < tree.trunkRenderables.length; i++) {
+            tree.trunkRenderables[i] = TRUNK_PALETTE.randomRenderable(random);
+        }
+        int leavesPerRow = 2 * calcRadius(tree.height) - 1;
+        tree.leafRenderables = new Renderable[leavesPerRow * leavesPerRow];
+        for (int i = 0; i < tree.leafRenderables.length; i++) {
+            tree.leafRenderables[i] = LEAF_PALETTE.randomRenderable(random);
+        }
+        this.leafCount += tree.leafRenderables.length;
+        this.objectCount += tree.trunkRenderables.length + tree.leafRenderables.length;
+        this.plannedTrees.add(tree);
+        return tree;
+    }
+
+    /**
+     * Returns the number of game objects the planned trees are made of.
+     * @return the number of trunk blocks and leaves of the planned trees.
      */
-    private void plantTree(int x) {
-        int treeHeight = MIN_HEIGHT + random.nextInt(MAX_HEIGHT_DIFFERENCE);
-        int lastY = ((int)(this.groundHeightFunction.apply(x)/Block.SIZE)) * Block.SIZE;
-        int firstY = lastY - (treeHeight * Block.SIZE);
+    public int getObjectCount() {
+        return this.objectCount;
+    }
+
+    /**
+     * Creates the game objects of the next planned trees, until the given number of objects is reached
+     * (checked between trees).
+     * @param maxObjects the number of objects to create.
+     * @return the number of objects that were created.
+     */
+    public int createTrees(int maxObjects) {
+        if (this.leafSystem == null && !isCreated()) {
+            // one system animates all the leaves of these trees
+            this.leafSystem = new LeafSystem(this.leafCount, this.surfaceHeightFunction,
+                    this.randomStreams.stream(RandomStreams.Domain.LEAVES, this.firstColumn));
+            this.gameObjects.addGameObject(this.leafSystem, Layers.LEAVES.value);
+            this.leafSystem.setActive(this.active);
+        }
+        int created = 0;
+        while (!isCreated() && created < maxObjects) {
+            created += plantTree(this.plannedTrees.get(this.nextTree++));
+        }
+        return created;
+    }
+
+    /**
+     * Returns whether all of the planned trees have been created.
+     * @return true if all trees were created, false otherwise.
+     */
+    public boolean isCreated() {
+        return this.nextTree == this.plannedTrees.size();
+    }
+
+    /**
+     * Returns the height of the top of the trunk growing at a given location.
+     * @param x the location on the x-axis.
+     * @return the y coordinate of the trunk's top, or positive infinity if no created tree grows there.
+     */
+    public float trunkTopAt(float x) {
+        PlannedTree[] trees = this.treeAtColumn;
+        if (trees == null)
+            return Float.POSITIVE_INFINITY;
+        int column = Math.floorDiv((int) Math.floor(x), Block.SIZE) - this.firstColumn;
+        if (column < 0 || column >= trees.length || trees[column] == null || !trees[column].planted)
+            return Float.POSITIVE_INFINITY;
+        return trees[column].groundY - trees[column].height * Block.SIZE;
+    }
+
+    /*
+     * plants a planned tree, returning the number of objects created.
+     */
+    private int plantTree(PlannedTree tree) {
+        tree.planted = true;
+        int lastY = tree.groundY;
+        int firstY = lastY - (tree.height * Block.SIZE);
+        int renderableIndex = 0;
         for (int y = firstY; y < lastY; y += Block.SIZE) {
-            Renderable renderable = new RectangleRenderable(ColorSupplier.approximateColor(TRUNK_COLOR));
-            Block trunkBlock = new Block(new Vector2(x, y), renderable);
+            Vector2 topLeftCorner = new Vector2(tree.x, y);
+            Renderable renderable = tree.trunkRenderables[renderableIndex++];
+            Block trunkBlock = this.blockPools.getBlocks().acquire();
+            if (trunkBlock == null)
+                trunkBlock = new Block(topLeftCorner, renderable);
+            else
+                trunkBlock.reset(topLeftCorner, renderable);
             trunkBlock.setTag(TREE_TAG);
+            trunkBlock.setCategory(CollisionCategory.TRUNK);
+            trunkBlock.setVisible(this.active);
             this.gameObjects.addGameObject(trunkBlock, Layers.TREES.value);
             this.trunk.add(trunkBlock);
         }
-        Vector2 top = new Vector2(x, firstY);
-        createLeaves(treeHeight, top);
+        Vector2 top = new Vector2(tree.x, firstY);
+        createLeaves(tree, top);
+        return tree.trunkRenderables.length + tree.leafRenderables.length;
     }
 
     /*
      * create leaves on top of a tree. The radius of square to create leaves on is determined
-     * by the given treeHeight.
+     * by the given tree's height.
      */
-    private void createLeaves(int treeHeight, Vector2 center) {
-        int radius = calcRadius(treeHeight);
+    private void createLeaves(PlannedTree tree, Vector2 center) {
+        int radius = calcRadius(tree.height);
         int firstX = (int)center.x() - (radius - 1) * Block.SIZE;
         int lastX = (int)center.x() + radius * Block.SIZE;
         int firstY = (int)center.y() - (radius - 1) * Block.SIZE;
         int lastY = (int)center.y() + radius * Block.SIZE;
+        int renderableIndex = 0;
         for (int curX = firstX; curX < lastX; curX += Block.SIZE) {
             for (int curY = firstY; curY < lastY; curY += Block.SIZE) {
-                Renderable renderable =
-                        new RectangleRenderable(ColorSupplier.approximateColor(Leaf.COLOR));
-                Leaf leaf = new Leaf(new Vector2(curX, curY), renderable);
+                Vector2 topLeftCorner = new Vector2(curX, curY);
+                Renderable renderable = tree.leafRenderables[renderableIndex++];
+                Leaf leaf = (Leaf) this.blockPools.getLeaves().acquire();
+                if (leaf == null)
+                    leaf = new Leaf(topLeftCorner, renderable);
+                else
+                    leaf.reset(topLeftCorner, renderable);
                 this.gameObjects.addGameObject(leaf, Layers.LEAVES.value);
                 this.leaves.add(leaf);
+                leaf.setVisible(this.active);
+                this.leafSystem.add(leaf);
             }
         }
     }
 
+    /**
+     * Suspends or resumes the trees: inactive trees are hidden and their leaves stop moving, until they
+     * are resumed where their life-cycle left off.
+     * @param active whether the trees should be active.
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+        for (Block block : this.trunk) {
+            block.setVisible(active);
+        }
+        for (Block block : this.leaves) {
+            block.setVisible(active);
+        }
+        if (this.leafSystem != null)
+            this.leafSystem.setActive(active);
+    }
+
     /**
      * Destroys the tree objects.
      */
     public void destroy() {
-        for (Block block : this.trunk) {
+        destroy(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Destroys up to the given number of tree objects.
+     * @param maxObjects the number of objects to destroy.
+     * @return the number of objects that were destroyed.
+     */
+    public int destroy(int maxObjects) {
+        int destroyed = 0;
+        while (!this.trunk.isEmpty() && destroyed < maxObjects) {
+            Block block = this.trunk.removeLast();
             this.gameObjects.removeGameObject(block, Layers.TREES.value);
+            this.blockPools.getBlocks().release(block);
+            destroyed++;
         }
-        for (Block block : this.leaves) {
+        while (!this.leaves.isEmpty() && destroyed < maxObjects) {
+            Block block = this.leaves.removeLast();
             this.gameObjects.removeGameObject(block, Layers.LEAVES.value);
+            this.blockPools.getLeaves().release(block);
+            destroyed++;
         }
+        if (this.leaves.isEmpty() && this.leafSystem != null) {
+            this.gameObjects.removeGameObject(this.leafSystem, Layers.LEAVES.value);
+            this.leafSystem = null;
+        }
+        return destroyed;
+    }
+
+    /**
+     * Returns whether all of the created tree objects have been destroyed.
+     * @return true if no tree objects remain in the game, false otherwise.
+     */
+    public boolean isDestroyed() {
+        return this.trunk.isEmpty() && this.leaves.isEmpty() && this.leafSystem == null;
     }
 
     /*
@@ -128,4 +304,16 @@ public class Tree {
     private static int calcRadius(int treeHeight) {
         return (treeHeight + 2) / 3;
     }
+
+    /*
+     * The generated data of a single tree, from which its game objects are created.
+     */
+    private static class PlannedTree {
+        private int x;
+        private int height;
+        private int groundY;
+        private Renderable[] trunkRenderables;
+        private Renderable[] leafRenderables;
+        private boolean planted;
+    }
 }
@@ -0,0 +1,135 @@
+package pepse.replay;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pepse.headless.ScriptedInput;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a session recorded by InputRecorder is read back by InputReplay exactly: the header, every
+ * frame's time, and the frames at which keys were pressed and released - also when the recording's last
+ * frame was cut short.
+ * @author Ohad Klein, Ethan Glick
+ */
+class InputRecorderTest {
+    private static final int SEED = 1234;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final float[] FRAME_TIMES =
+            {1 / 60f, 1 / 30f, 0.02f, 1 / 60f, 0.1f, 1 / 144f, 1 / 60f, 0.05f};
+    private static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE, KeyEvent.VK_S};
+    private static final int FRAME_BYTES = 6; // a frame's time and its two counts of key changes
+    private static final int KEY_BYTES = 2;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordedHeaderTimesAndKeys() throws IOException {
+        Path file = record();
+        InputReplay replay = InputReplay.read(file);
+
+        assertEquals(SEED, replay.getSeed());
+        assertEquals(WINDOW_DIMENSIONS.x(), replay.getWindowDimensions().x());
+        assertEquals(WINDOW_DIMENSIONS.y(), replay.getWindowDimensions().y());
+        assertEquals(FRAME_TIMES.length, replay.getFrameCount());
+        for (int frame = 0; frame < FRAME_TIMES.length; frame++) {
+            assertEquals(FRAME_TIMES[frame], replay.getFrameTime(frame));
+        }
+        assertSameInput(script(), replay.getInput(), FRAME_TIMES.length);
+    }
+
+    @Test
+    void writesCompactFrames() throws IOException {
+        Path file = record();
+        // header: magic, version, seed, window width and height
+        long header = Integer.BYTES + Short.BYTES + Integer.BYTES + 2 * Float.BYTES;
+        // the script presses and releases 4 keys twice (see script())
+        long keyChanges = 2 * 2 * KEYS.length;
+        assertEquals(header + FRAME_TIMES.length * FRAME_BYTES + keyChanges * KEY_BYTES, Files.size(file));
+    }
+
+    @Test
+    void ignoresTruncatedLastFrame() throws IOException {
+        Path file = record();
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = directory.resolve("truncated.rec");
+        // the last frame has no key changes, so cutting 3 of its bytes leaves half of its time
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+
+        InputReplay replay = InputReplay.read(truncated);
+        assertEquals(FRAME_TIMES.length - 1, replay.getFrameCount());
+        for (int frame = 0; frame < FRAME_TIMES.length - 1; frame++) {
+            assertEquals(FRAME_TIMES[frame], replay.getFrameTime(frame));
+        }
+        assertSameInput(script(), replay.getInput(), FRAME_TIMES.length - 1);
+    }
+
+    @Test
+    void rejectsFilesThatAreNotRecordings() throws IOException {
+        Path file = directory.resolve("other.rec");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18});
+        assertThrows(IOException.class, () -> InputReplay.read(file));
+    }
+
+    /*
+     * records the scripted keys, with the frames' times, to a new file.
+     */
+    private Path record() {
+        Path file = directory.resolve("session.rec");
+        ScriptedInput keyboard = script();
+        InputRecorder recorder = new InputRecorder(file);
+        recorder.start(keyboard.getListener(), SEED, WINDOW_DIMENSIONS);
+        for (int frame = 0; frame < FRAME_TIMES.length; frame++) {
+            keyboard.beginFrame(frame);
+            recorder.beginFrame(FRAME_TIMES[frame]);
+        }
+        recorder.close();
+        assertEquals(FRAME_TIMES.length, recorder.getFrameCount());
+        return file;
+    }
+
+    /*
+     * returns the keys of the recorded session: presses and releases at the first frame, at later frames,
+     * several keys at once, and nothing at the last frame.
+     */
+    private static ScriptedInput script() {
+        return new ScriptedInput()
+                .press(0, KeyEvent.VK_RIGHT)
+                .press(1, KeyEvent.VK_SPACE).press(1, KeyEvent.VK_S)
+                .release(2, KeyEvent.VK_SPACE)
+                .release(3, KeyEvent.VK_RIGHT).press(3, KeyEvent.VK_LEFT)
+                .release(4, KeyEvent.VK_S).release(4, KeyEvent.VK_LEFT)
+                .press(5, KeyEvent.VK_LEFT).press(5, KeyEvent.VK_RIGHT).press(5, KeyEvent.VK_SPACE)
+                .press(5, KeyEvent.VK_S)
+                .release(6, KeyEvent.VK_LEFT).release(6, KeyEvent.VK_RIGHT).release(6, KeyEvent.VK_SPACE)
+                .release(6, KeyEvent.VK_S);
+    }
+
+    /*
+     * checks that two inputs show the same keys as pressed, just pressed and just released, at every frame.
+     */
+    private static void assertSameInput(ScriptedInput expected, ScriptedInput actual, int frames) {
+        UserInputListener expectedListener = expected.getListener();
+        UserInputListener actualListener = actual.getListener();
+        for (int frame = 0; frame < frames; frame++) {
+            expected.beginFrame(frame);
+            actual.beginFrame(frame);
+            for (int key : KEYS) {
+                String where = "frame " + frame + ", key " + key;
+                assertEquals(expectedListener.isKeyPressed(key), actualListener.isKeyPressed(key), where);
+                assertEquals(expectedListener.wasKeyPressedThisFrame(key),
+                             actualListener.wasKeyPressedThisFrame(key), where);
+                assertEquals(expectedListener.wasKeyReleasedThisFrame(key),
+                             actualListener.wasKeyReleasedThisFrame(key), where);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package pepse.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that GradientNoise1D produces exactly the values of PerlinNoise, so worlds generated with it are
+ * the same as before.
+ * @author Ohad Klein, Ethan Glick
+ */
+class GradientNoise1DTest {
+    // whole seeds, as chunks use, and fractional ones, which sample between rows of the lattice
+    private static final double[] SEEDS = {0, 1, 420, 421, -3, 123456, 7.5, -42.25, 0.001};
+    private static final double[] XS = {0, 1, -1, 0.5, -0.5, 29.9, -30, 255, 256, -257.75, 1234.567,
+                                        -98765.4321, 1e6};
+    private static final int FILL_SAMPLES = 200;
+
+    @Test
+    void noiseMatchesPerlinNoise() {
+        for (double seed : SEEDS) {
+            PerlinNoise expected = new PerlinNoise(seed);
+            GradientNoise1D actual = new GradientNoise1D(seed);
+            for (double x : XS) {
+                assertEquals(expected.noise(x), actual.noise(x), "seed " + seed + ", x " + x);
+            }
+        }
+    }
+
+    @Test
+    void fillMatchesPerlinNoise() {
+        double[][] ranges = {{0, 30}, {-3000, 30}, {-100.25, 0.5}, {4567.8, 1.75}};
+        float[] out = new float[FILL_SAMPLES];
+        for (double seed : SEEDS) {
+            PerlinNoise expected = new PerlinNoise(seed);
+            GradientNoise1D actual = new GradientNoise1D(seed);
+            for (double[] range : ranges) {
+                actual.fill(range[0], range[1], out);
+                for (int i = 0; i < FILL_SAMPLES; i++) {
+                    double x = range[0] + i * range[1];
+                    assertEquals(expected.noise(x), out[i], "seed " + seed + ", x " + x);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package pepse.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that TimerWheel fires timers on the ticks they are due, whichever level of the wheel they start on,
+ * and that cancelling, rescheduling and repeating timers work.
+ * The wheel's ticks are a second long and it is advanced a tick at a time, so a timer fires when the wheel's
+ * time equals its deadline in ticks.
+ * @author Ohad Klein, Ethan Glick
+ */
+class TimerWheelTest {
+    private static final float TICK = 1;
+
+    private final TimerWheel wheel = new TimerWheel(TICK);
+    private final List<Long> firings = new ArrayList<>();
+    private final TimerWheel.Timer timer = new TimerWheel.Timer(() -> firings.add((long) wheel.getTime()));
+
+    @Test
+    void firesOnTheFirstLevel() {
+        wheel.schedule(timer, 10);
+        advance(100);
+        assertEquals(Arrays.asList(10L), firings);
+    }
+
+    @Test
+    void cascadesDownFromTheSecondLevel() {
+        // beyond the 64 ticks of the first level, so the timer starts a level up
+        wheel.schedule(timer, 100);
+        advance(99);
+        assertTrue(firings.isEmpty());
+        advance(1);
+        assertEquals(Arrays.asList(100L), firings);
+        advance(200);
+        assertEquals(Arrays.asList(100L), firings);
+    }
+
+    @Test
+    void cascadesDownFromTheThirdLevel() {
+        // beyond the 64 * 64 ticks of the second level, and off the boundaries of its slots
+        wheel.schedule(timer, 5000 + 37);
+        advance(5036);
+        assertTrue(firings.isEmpty());
+        advance(1);
+        assertEquals(Arrays.asList(5037L), firings);
+    }
+
+    @Test
+    void firesOnTimeWhenScheduledMidTurn() {
+        advance(60);
+        // due in the next turn of the first level
+        wheel.schedule(timer, 10);
+        advance(100);
+        assertEquals(Arrays.asList(70L), firings);
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() {
+        wheel.schedule(timer, 100);
+        assertTrue(timer.isPending());
+        assertEquals(1, wheel.getPendingCount());
+        advance(50);
+        wheel.cancel(timer);
+        assertFalse(timer.isPending());
+        assertEquals(0, wheel.getPendingCount());
+        advance(200);
+        assertTrue(firings.isEmpty());
+        // cancelling a timer that is not pending does nothing
+        wheel.cancel(timer);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void reschedulingPendingTimerMovesIt() {
+        wheel.schedule(timer, 10);
+        advance(5);
+        wheel.schedule(timer, 100);
+        assertEquals(1, wheel.getPendingCount());
+        advance(300);
+        assertEquals(Arrays.asList(105L), firings);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void repeatingTimerFiresEveryPeriod() {
+        wheel.scheduleRepeating(timer, 5, 10);
+        advance(45);
+        assertEquals(Arrays.asList(5L, 15L, 25L, 35L, 45L), firings);
+        assertTrue(timer.isPending());
+    }
+
+    @Test
+    void repeatingTimerCrossesLevels() {
+        wheel.scheduleRepeating(timer, 100, 1000);
+        advance(3100);
+        assertEquals(Arrays.asList(100L, 1100L, 2100L, 3100L), firings);
+        wheel.cancel(timer);
+        advance(2000);
+        assertEquals(4, firings.size());
+    }
+
+    @Test
+    void firesTimersInTheOrderOfTheirDeadlines() {
+        List<String> order = new ArrayList<>();
+        TimerWheel.Timer late = new TimerWheel.Timer(() -> order.add("late"));
+        TimerWheel.Timer early = new TimerWheel.Timer(() -> order.add("early"));
+        wheel.schedule(late, 4100);
+        wheel.schedule(early, 70);
+        advance(5000);
+        assertEquals(Arrays.asList("early", "late"), order);
+    }
+
+    /*
+     * advances the wheel a tick at a time.
+     */
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.advance(TICK);
+        }
+    }
+}